@@ -32,6 +32,7 @@ import org.granitepowered.granite.impl.entity.GraniteEntity;
 import org.granitepowered.granite.impl.item.inventory.GraniteItemStack;
 import org.granitepowered.granite.impl.plugin.GranitePluginManager;
 import org.granitepowered.granite.impl.service.event.GraniteEventManager;
+import org.granitepowered.granite.impl.service.scheduler.GraniteAsyncScheduler;
 import org.granitepowered.granite.impl.service.scheduler.GraniteScheduler;
 import org.granitepowered.granite.impl.text.action.GraniteTextAction;
 import org.granitepowered.granite.impl.text.message.GraniteMessage;
@@ -63,6 +64,7 @@ public class Granite {
     final GraniteScheduler scheduler;
     // Not injected directly; initialization is done after classes are rewritten
     GraniteServer server;
+    GraniteAsyncScheduler asyncScheduler;
     String version;
     String apiVersion;
     MinecraftVersion minecraftVersion;
@@ -166,4 +168,8 @@ public class Granite {
     public GraniteScheduler getScheduler() {
         return scheduler;
     }
+
+    public GraniteAsyncScheduler getAsyncScheduler() {
+        return asyncScheduler;
+    }
 }
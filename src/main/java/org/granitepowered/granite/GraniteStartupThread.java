@@ -45,6 +45,7 @@ import org.granitepowered.granite.bytecode.classes.ItemInWorldManagerClass;
 import org.granitepowered.granite.bytecode.classes.ItemStackClass;
 import org.granitepowered.granite.bytecode.classes.NetHandlerPlayServerClass;
 import org.granitepowered.granite.bytecode.classes.ServerConfigurationManagerClass;
+import org.granitepowered.granite.bytecode.classes.StaticInvokerClass;
 import org.granitepowered.granite.bytecode.classes.WorldProviderClass;
 import org.granitepowered.granite.impl.GraniteGameVersion;
 import org.granitepowered.granite.impl.GraniteServer;
@@ -54,6 +55,7 @@ import org.granitepowered.granite.impl.event.state.GraniteLoadCompleteEvent;
 import org.granitepowered.granite.impl.event.state.GranitePostInitializationEvent;
 import org.granitepowered.granite.impl.event.state.GranitePreInitializationEvent;
 import org.granitepowered.granite.impl.guice.GraniteGuiceModule;
+import org.granitepowered.granite.impl.service.scheduler.GraniteAsyncScheduler;
 import org.granitepowered.granite.impl.text.chat.GraniteChatType;
 import org.granitepowered.granite.impl.text.format.GraniteTextColor;
 import org.granitepowered.granite.mappings.Mappings;
@@ -142,6 +144,11 @@ public class GraniteStartupThread extends Thread {
 
             Granite.instance.serverConfig = new ServerConfig();
             Granite.instance.classPool = ClassPool.getDefault();
+            Granite.instance.asyncScheduler =
+                    new GraniteAsyncScheduler(Granite.instance.serverConfig.getAsyncSchedulerThreads(),
+                                              Granite.instance.serverConfig.getAsyncSchedulerQueueSize());
+            Granite.instance.scheduler.setHandoffBudget(Granite.instance.serverConfig.getSyncHandoffBudget());
+            Granite.instance.scheduler.setTaskBudget(Granite.instance.serverConfig.getSyncTaskBudget());
 
             Granite.instance.eventManager.post(new GraniteConstructionEvent());
 
@@ -291,6 +298,7 @@ public class GraniteStartupThread extends Thread {
             modifier.add(new WorldProviderClass());
 
             modifier.add(new InstantiatorClass());
+            modifier.add(new StaticInvokerClass());
 
             if (buildNumber.equals("UNKNOWN") || !buildNumberFile.exists() || !Objects
                     .equals(FileUtils.readFileToString(buildNumberFile), buildNumber)) {
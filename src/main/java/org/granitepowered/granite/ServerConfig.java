@@ -95,6 +95,26 @@ public class ServerConfig {
         return config.getBoolean("automatic-mappings-updating");
     }
 
+    public boolean getGeneratedEventExecutors() {
+        return config.getBoolean("generated-event-executors");
+    }
+
+    public int getAsyncSchedulerThreads() {
+        return config.getInt("async-scheduler-threads");
+    }
+
+    public int getAsyncSchedulerQueueSize() {
+        return config.getInt("async-scheduler-queue-size");
+    }
+
+    public long getSyncHandoffBudget() {
+        return config.getLong("sync-handoff-budget-ms");
+    }
+
+    public long getSyncTaskBudget() {
+        return config.getLong("sync-task-budget-ms");
+    }
+
     public void set(String key, Object value) {
         config = config.withValue(key, ConfigValueFactory.fromAnyRef(value));
     }
@@ -32,6 +32,9 @@ import javassist.CtClass;
 import javassist.CtConstructor;
 import javassist.CtField;
 import javassist.CtMethod;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.CtPrimitiveType;
 import javassist.Modifier;
 import javassist.NotFoundException;
 import javassist.bytecode.AccessFlag;
@@ -44,10 +47,15 @@ import javassist.expr.MethodCall;
 import javassist.expr.NewExpr;
 import org.apache.commons.lang3.ArrayUtils;
 import org.granitepowered.granite.Granite;
+import org.granitepowered.granite.composite.Composite;
+import org.granitepowered.granite.composite.CompositeHolder;
+import org.granitepowered.granite.impl.service.event.EventListenerFlag;
+import org.granitepowered.granite.impl.service.event.GraniteEventManager;
 import org.granitepowered.granite.mappings.Mappings;
 import org.granitepowered.granite.mc.Implement;
 import org.granitepowered.granite.mc.MCInterface;
 import org.granitepowered.granite.util.ReflectionUtils;
+import org.spongepowered.api.util.event.Event;
 
 import java.io.IOException;
 import java.lang.invoke.MethodHandle;
@@ -85,6 +93,14 @@ public class BytecodeClass {
     }
 
     public BytecodeClass(CtClass clazz, boolean annotate) {
+        this(clazz, Granite.getInstance().getClassPool());
+
+        if (annotate) {
+            annotate();
+        }
+    }
+
+    BytecodeClass(CtClass clazz, ClassPool pool) {
         this.clazz = clazz;
 
         classMap = new HashMap<>();
@@ -93,11 +109,7 @@ public class BytecodeClass {
 
         classesToLoad = new HashSet<>();
 
-        pool = Granite.getInstance().getClassPool();
-
-        if (annotate) {
-            annotate();
-        }
+        this.pool = pool;
     }
 
     public static Class getFromCt(CtClass clazz) {
@@ -166,17 +178,19 @@ public class BytecodeClass {
 
             for (CtMethod method : thisClass.getDeclaredMethods()) {
                 if (method.hasAnnotation(Proxy.class)) {
-                    proxy(((Proxy) method.getAnnotation(Proxy.class)).methodName(), method);
+                    Proxy proxy = (Proxy) method.getAnnotation(Proxy.class);
+                    proxy(proxy.methodName(), method, proxy.events());
                 }
 
                 if (method.hasAnnotation(Insert.class)) {
                     Insert insert = (Insert) method.getAnnotation(Insert.class);
-                    insert(insert.methodName(), method, insert.mode(), insert.position());
+                    insert(insert.methodName(), method, insert.mode(), insert.position(), insert.captureArguments());
                 }
 
                 if (method.hasAnnotation(MethodCallArgument.class)) {
                     MethodCallArgument mca = (MethodCallArgument) method.getAnnotation(MethodCallArgument.class);
-                    replaceMethodCallArgument(mca.methodName(), method, mca.methodCallClass(), mca.methodCallName(), mca.argumentIndex());
+                    replaceMethodCallArgument(mca.methodName(), method, mca.methodCallClass(), mca.methodCallName(), mca.argumentIndex(),
+                                              mca.captureArguments());
                 }
             }
         } catch (NotFoundException | ClassNotFoundException e) {
@@ -185,54 +199,73 @@ public class BytecodeClass {
     }
 
     public void proxy(final String methodName, CtMethod handler) {
+        proxy(methodName, handler, new Class[0]);
+    }
+
+    public void proxy(final String methodName, CtMethod handler, Class<? extends Event>[] events) {
         try {
             final CtMethod method = Mappings.getCtMethod(clazz, methodName);
             addBytecodeClassField(method.getDeclaringClass());
 
+            if ((method.getModifiers() & AccessFlag.ABSTRACT) == AccessFlag.ABSTRACT) {
+                throw new RuntimeException("Abstract method " + methodName + " can not be proxied; add implementation to mappings");
+            }
+
             final String oldName = method.getName();
             method.setName(oldName + "$cb");
 
-            injectField(method.getDeclaringClass(), pool.get(Method.class.getName()), methodName + "$method", new PostCallback() {
-                @Override
-                public void callback() {
-                    try {
-                        Field f = getFromCt(method.getDeclaringClass()).getDeclaredField(methodName + "$method");
-
-                        Class<?>[] paramTypes = new Class[method.getParameterTypes().length];
-                        for (int i = 0; i < paramTypes.length; i++) {
-                            paramTypes[i] = getFromCt(method.getParameterTypes()[i]);
-                        }
+            // The invoker is a separate class, so it needs to be able to see the original method
+            method.setModifiers(AccessFlag.setPublic(method.getModifiers()));
 
-                        @SuppressWarnings("unchecked")
-                        Method m = getFromCt(method.getDeclaringClass()).getDeclaredMethod(method.getName(), paramTypes);
+            CtClass invoker = createInvoker(method, methodName);
 
-                        f.setAccessible(true);
-                        f.set(null, m);
-                    } catch (NoSuchFieldException | NoSuchMethodException | NotFoundException | IllegalAccessException e) {
-                        Throwables.propagate(e);
-                    }
-                }
-            });
+            CtField invokerField = new CtField(pool.get(ProxyHandlerCallback.class.getName()), methodName + "$invoker", method.getDeclaringClass());
+            invokerField.setModifiers(AccessFlag.PUBLIC | AccessFlag.STATIC | AccessFlag.FINAL);
+            method.getDeclaringClass().addField(invokerField, CtField.Initializer.byNew(invoker));
 
-            //injectField(method.getDeclaringClass(), pool.get(ProxyHandler.class.getName()), methodName + "$handler", handler);
+            CtClass info = createInfo(method, methodName);
 
             CtMethod newMethod = new CtMethod(method.getReturnType(), oldName, method.getParameterTypes(), method.getDeclaringClass());
-            //newMethod.setBody("return ($r) " + methodName + "$handler.preHandle(this, $args, " + methodName + "$method);");
 
-            //CtClass callerType = handler.getParameterTypes()[0];
+            String arguments = "";
+            for (int i = 0; i < method.getParameterTypes().length; i++) {
+                arguments += ", $" + (i + 1);
+            }
 
             String code = "{\n";
-            code +=
-                    ProxyHandlerCallback.class.getName() + " callback = " + getClass().getName() + ".createCallback((Object) this, " + methodName
-                    + "$method);\n";
-            code += ProxyCallbackInfo.class.getName() + " info = new " + ProxyCallbackInfo.class.getName() + "(this, $args, callback);";
-            code += "return ($r) this.bytecodeClass." + handler.getName() + "(info);\n";
-            code += "}";
 
-            if ((method.getModifiers() & AccessFlag.ABSTRACT) == AccessFlag.ABSTRACT) {
-                throw new RuntimeException("Abstract method " + methodName + " can not be proxied; add implementation to mappings");
+            if (events.length > 0) {
+                String eventTypes = "";
+                for (int i = 0; i < events.length; i++) {
+                    eventTypes += events[i].getName() + ".class";
+
+                    if (i < events.length - 1) {
+                        eventTypes += ", ";
+                    }
+                }
+
+                CtField listenersField =
+                        new CtField(pool.get(EventListenerFlag.class.getName()), methodName + "$listeners", method.getDeclaringClass());
+                listenersField.setModifiers(AccessFlag.PUBLIC | AccessFlag.STATIC | AccessFlag.FINAL);
+                method.getDeclaringClass().addField(listenersField, CtField.Initializer.byExpr(
+                        "((" + GraniteEventManager.class.getName() + ") " + Granite.class.getName() + ".getInstance().getEventManager())"
+                        + ".getListenerFlag(new Class[] { " + eventTypes + " })"));
+
+                // Nobody would see the events this handler posts, so skip straight to the original method
+                code += "if (!" + methodName + "$listeners.hasListeners()) {\n";
+                if (method.getReturnType() == CtClass.voidType) {
+                    code += "this." + method.getName() + "($$);\n";
+                    code += "return;\n";
+                } else {
+                    code += "return this." + method.getName() + "($$);\n";
+                }
+                code += "}\n";
             }
 
+            code += info.getName() + " info = new " + info.getName() + "(this, " + methodName + "$invoker" + arguments + ");\n";
+            code += "return ($r) this.bytecodeClass." + handler.getName() + "(info);\n";
+            code += "}";
+
             newMethod.setBody(code);
 
             method.getDeclaringClass().addMethod(newMethod);
@@ -243,6 +276,155 @@ public class BytecodeClass {
         }
     }
 
+    /**
+     * Generates a {@link ProxyHandlerCallback} that calls the renamed <code>$cb</code> method directly,
+     * so calling back into Minecraft doesn't have to go through reflection.
+     *
+     * @param method     The renamed method to call
+     * @param methodName The human name of the method, used to name the invoker
+     * @return The invoker class
+     */
+    CtClass createInvoker(CtMethod method, String methodName) throws NotFoundException, CannotCompileException {
+        CtClass declaringClass = method.getDeclaringClass();
+
+        CtClass invoker = pool.makeClass(declaringClass.getName() + "$" + methodName + "$Invoker");
+        invoker.addInterface(pool.get(ProxyHandlerCallback.class.getName()));
+        invoker.addConstructor(CtNewConstructor.defaultConstructor(invoker));
+
+        CtClass[] parameterTypes = method.getParameterTypes();
+
+        String call = "((" + declaringClass.getName() + ") $1)." + method.getName() + "(";
+        for (int i = 0; i < parameterTypes.length; i++) {
+            call += unbox(parameterTypes[i], "$2[" + i + "]");
+
+            if (i < parameterTypes.length - 1) {
+                call += ", ";
+            }
+        }
+        call += ")";
+
+        String body;
+        if (method.getReturnType() == CtClass.voidType) {
+            body = "{ " + call + "; return null; }";
+        } else {
+            body = "{ return " + box(method.getReturnType(), call) + "; }";
+        }
+
+        CtClass objectType = pool.get(Object.class.getName());
+        invoker.addMethod(CtNewMethod.make(objectType, "invokeParent", new CtClass[]{objectType, pool.get("java.lang.Object[]")},
+                                           new CtClass[]{pool.get(Throwable.class.getName())}, body, invoker));
+
+        classesToLoad.add(invoker.getName());
+
+        return invoker;
+    }
+
+    /**
+     * Generates a {@link ProxyCallbackInfo} subclass for a proxied method which stores every argument in a field of its
+     * own type. The argument array is only built if a handler asks for it, and {@link ProxyCallbackInfo#callback()} calls
+     * the <code>$cb</code> method straight from the fields.
+     *
+     * @param method     The renamed method
+     * @param methodName The human name of the method, used to name the info class
+     * @return The info class, with a constructor taking the caller, the invoker and then the method's own parameters
+     */
+    CtClass createInfo(CtMethod method, String methodName) throws NotFoundException, CannotCompileException {
+        CtClass declaringClass = method.getDeclaringClass();
+        CtClass[] parameterTypes = method.getParameterTypes();
+
+        CtClass info = pool.makeClass(declaringClass.getName() + "$" + methodName + "$Info", pool.get(ProxyCallbackInfo.class.getName()));
+        info.setModifiers(Modifier.PUBLIC | Modifier.FINAL);
+
+        CtClass objectType = pool.get(Object.class.getName());
+        CtClass intType = CtClass.intType;
+        CtClass[] noExceptions = new CtClass[]{};
+
+        CtClass[] constructorTypes = new CtClass[parameterTypes.length + 2];
+        constructorTypes[0] = objectType;
+        constructorTypes[1] = pool.get(ProxyHandlerCallback.class.getName());
+
+        String constructorBody = "{ super($1, null, $2);";
+        String boxedArguments = "";
+        String unboxedArguments = "";
+        String getArgumentBody = "{ if (arguments != null) { return arguments[$1]; }";
+        Map<CtClass, String> typedGetterBodies = new HashMap<>();
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            CtClass parameterType = parameterTypes[i];
+
+            CtField field = new CtField(parameterType, "a" + i, info);
+            field.setModifiers(Modifier.PRIVATE | Modifier.FINAL);
+            info.addField(field);
+
+            constructorTypes[i + 2] = parameterType;
+            constructorBody += "a" + i + " = $" + (i + 3) + ";";
+
+            boxedArguments += box(parameterType, "a" + i);
+            unboxedArguments += "a" + i;
+            if (i < parameterTypes.length - 1) {
+                boxedArguments += ", ";
+                unboxedArguments += ", ";
+            }
+
+            getArgumentBody += "if ($1 == " + i + ") { return " + box(parameterType, "a" + i) + "; }";
+
+            if (parameterType.isPrimitive()) {
+                String typedGetterBody = typedGetterBodies.containsKey(parameterType) ? typedGetterBodies.get(parameterType) : "";
+                typedGetterBodies.put(parameterType, typedGetterBody + "if ($1 == " + i + ") { return a" + i + "; }");
+            }
+        }
+
+        constructorBody += "}";
+        getArgumentBody += "return super.getArgument($1); }";
+
+        info.addConstructor(CtNewConstructor.make(constructorTypes, noExceptions, constructorBody, info));
+
+        String argumentsArray = parameterTypes.length > 0 ? "new Object[]{" + boxedArguments + "}" : "new Object[0]";
+        info.addMethod(CtNewMethod.make(pool.get("java.lang.Object[]"), "getArguments", new CtClass[]{}, noExceptions,
+                                        "{ if (arguments == null) { arguments = " + argumentsArray + "; } return arguments; }", info));
+
+        info.addMethod(CtNewMethod.make(objectType, "getArgument", new CtClass[]{intType}, noExceptions, getArgumentBody, info));
+
+        for (Map.Entry<CtClass, String> entry : typedGetterBodies.entrySet()) {
+            CtPrimitiveType primitiveType = (CtPrimitiveType) entry.getKey();
+            String getterName = "get" + Character.toUpperCase(primitiveType.getName().charAt(0)) + primitiveType.getName().substring(1);
+
+            info.addMethod(CtNewMethod.make(primitiveType, getterName, new CtClass[]{intType}, noExceptions,
+                                            "{ if (arguments == null) { " + entry.getValue() + "} return super." + getterName + "($1); }", info));
+        }
+
+        String call = "((" + declaringClass.getName() + ") getCaller())." + method.getName() + "(" + unboxedArguments + ")";
+
+        String callbackBody = "{ if (arguments != null) { return callback(arguments); }";
+        if (method.getReturnType() == CtClass.voidType) {
+            callbackBody += call + "; return null; }";
+        } else {
+            callbackBody += "return " + box(method.getReturnType(), call) + "; }";
+        }
+
+        info.addMethod(CtNewMethod.make(objectType, "callback", new CtClass[]{}, new CtClass[]{pool.get(Throwable.class.getName())},
+                                        callbackBody, info));
+
+        classesToLoad.add(info.getName());
+
+        return info;
+    }
+
+    private static String box(CtClass type, String expression) {
+        if (type.isPrimitive()) {
+            return ((CtPrimitiveType) type).getWrapperName() + ".valueOf(" + expression + ")";
+        }
+        return expression;
+    }
+
+    private static String unbox(CtClass type, String expression) {
+        if (type.isPrimitive()) {
+            CtPrimitiveType primitiveType = (CtPrimitiveType) type;
+            return "((" + primitiveType.getWrapperName() + ") " + expression + ")." + primitiveType.getGetMethodName() + "()";
+        }
+        return "(" + type.getName() + ") " + expression;
+    }
+
     public void injectField(CtClass type, String name, Object value) {
         injectField(this.clazz, type, name, value);
     }
@@ -300,10 +482,7 @@ public class BytecodeClass {
                         bytecode.addGetfield(mcField.getDeclaringClass(), mcField.getName(), mcField.getFieldInfo().getDescriptor());
 
                         if (!interfaceMethod.getReturnType().isPrimitive()) {
-                            bytecode.addLdc(bytecode.getConstPool().addClassInfo(interfaceMethod.getReturnType()));
-                            bytecode.addInvokestatic(ReflectionUtils.class.getName(), "cast",
-                                                     "(Ljava/lang/Object;Ljava/lang/Class;)Ljava/lang/Object;");
-                            bytecode.addCheckcast(interfaceMethod.getReturnType());
+                            addCast(bytecode, mcField.getType(), interfaceMethod.getReturnType());
                         }
 
                         bytecode.addReturn(mcField.getType());
@@ -328,10 +507,7 @@ public class BytecodeClass {
                         bytecode.addLoad(1, mcField.getType());
 
                         if (!mcField.getType().isPrimitive()) {
-                            bytecode.addLdc(bytecode.getConstPool().addClassInfo(interfaceMethod.getParameterTypes()[0]));
-                            bytecode.addInvokestatic(ReflectionUtils.class.getName(), "cast",
-                                                     "(Ljava/lang/Object;Ljava/lang/Class;)Ljava/lang/Object;");
-                            bytecode.addCheckcast(mcField.getType());
+                            addCast(bytecode, interfaceMethod.getParameterTypes()[0], mcField.getType());
                         }
 
                         bytecode.incMaxLocals(1);
@@ -382,6 +558,70 @@ public class BytecodeClass {
         }
     }
 
+    /**
+     * Casts the reference on top of the stack from one type to another. This is a plain <code>checkcast</code>, unless the
+     * types are arrays whose elements aren't known to be compatible until runtime; then the array is copied into one of the
+     * right type. Which of the two is needed is decided here, at weave time.
+     */
+    private void addCast(Bytecode bytecode, CtClass from, CtClass to) throws NotFoundException {
+        if (from.isArray() && to.isArray() && !isArrayAssignable(from, to)) {
+            bytecode.addLdc(bytecode.getConstPool().addClassInfo(to));
+            bytecode.addInvokestatic(ReflectionUtils.class.getName(), "castArray",
+                                     "([Ljava/lang/Object;Ljava/lang/Class;)[Ljava/lang/Object;");
+        }
+        bytecode.addCheckcast(to);
+    }
+
+    /**
+     * Whether an array of one type can be used as an array of another type without copying, once every Minecraft class has
+     * been made to implement its interface. Arrays of primitives never need copying; if their types differ, the
+     * <code>checkcast</code> will fail the same way either way.
+     */
+    private boolean isArrayAssignable(CtClass from, CtClass to) throws NotFoundException {
+        CtClass fromComponent = from.getComponentType();
+        CtClass toComponent = to.getComponentType();
+
+        if (fromComponent.isPrimitive() || toComponent.isPrimitive()) {
+            return true;
+        }
+        if (fromComponent.isArray() && toComponent.isArray()) {
+            return isArrayAssignable(fromComponent, toComponent);
+        }
+        if (fromComponent.subtypeOf(toComponent)) {
+            return true;
+        }
+
+        if (toComponent.hasAnnotation(Implement.class)) {
+            try {
+                CtClass implemented = Mappings.getCtClass(((Implement) toComponent.getAnnotation(Implement.class)).name());
+                return implemented != null && fromComponent.subtypeOf(implemented);
+            } catch (ClassNotFoundException e) {
+                Throwables.propagate(e);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gives the class a field to cache its composite in, see {@link CompositeHolder}. Subclasses inherit it, so this should
+     * only be done on the root-most implemented class of a hierarchy.
+     */
+    public void addCompositeField() {
+        try {
+            CtField field = new CtField(pool.get(Composite.class.getName()), "granite$composite", clazz);
+            field.setModifiers(Modifier.PRIVATE | Modifier.VOLATILE | Modifier.TRANSIENT);
+            clazz.addField(field);
+
+            clazz.addMethod(CtNewMethod.getter("granite$getComposite", field));
+            clazz.addMethod(CtNewMethod.setter("granite$setComposite", field));
+            clazz.addInterface(pool.get(CompositeHolder.class.getName()));
+
+            classesToLoad.add(clazz.getName());
+        } catch (NotFoundException | CannotCompileException e) {
+            Throwables.propagate(e);
+        }
+    }
+
     public void instantiator(Class<?> instantiatorInterface) {
         try {
             CtClass ctMcInterface = pool.get(instantiatorInterface.getName());
@@ -463,6 +703,66 @@ public class BytecodeClass {
         }
     }
 
+    /**
+     * Implements each method of the interface as a direct invokestatic of the Minecraft method named by its {@link StaticMethod}, so
+     * callers skip the lookups, boxing and varargs of {@link Mappings#invokeStatic(String, String, Object...)}.
+     */
+    public void staticInvoker(Class<?> invokerInterface) {
+        try {
+            CtClass ctInvokerInterface = pool.get(invokerInterface.getName());
+
+            for (CtMethod interfaceMethod : ctInvokerInterface.getDeclaredMethods()) {
+                StaticMethod staticMethod = (StaticMethod) interfaceMethod.getAnnotation(StaticMethod.class);
+
+                CtMethod target = Mappings.getCtMethod(staticMethod.className(), staticMethod.methodName());
+                if (target == null || !Modifier.isStatic(target.getModifiers())) {
+                    throw new NotFoundException("No static method " + staticMethod.className() + "." + staticMethod.methodName());
+                }
+
+                CtClass[] interfaceParameterTypes = interfaceMethod.getParameterTypes();
+                CtClass[] targetParameterTypes = target.getParameterTypes();
+                if (interfaceParameterTypes.length != targetParameterTypes.length) {
+                    throw new NotFoundException("Wrong parameter count for " + staticMethod.className() + "." + staticMethod.methodName());
+                }
+
+                CtMethod newMethod = new CtMethod(interfaceMethod.getReturnType(), interfaceMethod.getName(), interfaceParameterTypes, clazz);
+                newMethod.setModifiers(Modifier.PUBLIC);
+
+                MethodInfo mi = newMethod.getMethodInfo();
+                Bytecode bytecode = new Bytecode(mi.getConstPool(), 0, 1);
+
+                int local = 1;
+                for (int i = 0; i < interfaceParameterTypes.length; i++) {
+                    int size = interfaceParameterTypes[i] == CtClass.doubleType || interfaceParameterTypes[i] == CtClass.longType ? 2 : 1;
+
+                    bytecode.addLoad(local, interfaceParameterTypes[i]);
+                    if (!targetParameterTypes[i].isPrimitive() && targetParameterTypes[i] != interfaceParameterTypes[i]) {
+                        bytecode.addCheckcast(targetParameterTypes[i]);
+                    }
+
+                    local += size;
+                }
+                bytecode.setMaxLocals(local);
+
+                bytecode.addInvokestatic(target.getDeclaringClass(), target.getName(), target.getMethodInfo().getDescriptor());
+
+                CtClass returnType = interfaceMethod.getReturnType();
+                if (!returnType.isPrimitive() && target.getReturnType() != returnType) {
+                    bytecode.addCheckcast(returnType);
+                }
+                bytecode.addReturn(returnType);
+
+                mi.setCodeAttribute(bytecode.toCodeAttribute());
+
+                clazz.addMethod(newMethod);
+            }
+
+            classesToLoad.add(clazz.getName());
+        } catch (NotFoundException | ClassNotFoundException | CannotCompileException e) {
+            Throwables.propagate(e);
+        }
+    }
+
     public void replaceMethod(String methodName, String code) {
         CtMethod method = Mappings.getCtMethod(clazz, methodName);
         try {
@@ -560,7 +860,16 @@ public class BytecodeClass {
 
     public void replaceMethodCallArgument(String methodName, final CtMethod methodToCallback, String methodCallClass, String methodCallName,
                                           final int parameterToReplace) {
-        addArgumentsVariable(methodName);
+        replaceMethodCallArgument(methodName, methodToCallback, methodCallClass, methodCallName, parameterToReplace, true);
+    }
+
+    public void replaceMethodCallArgument(String methodName, final CtMethod methodToCallback, String methodCallClass, String methodCallName,
+                                          final int parameterToReplace, boolean captureArguments) {
+        if (captureArguments) {
+            addArgumentsVariable(methodName);
+        }
+
+        final String newInfo = newCallbackInfo(captureArguments);
 
         final CtMethod method = Mappings.getCtMethod(clazz, methodName);
         final CtMethod methodCall = Mappings.getCtMethod(methodCallClass, methodCallName);
@@ -571,7 +880,7 @@ public class BytecodeClass {
                     try {
                         if (m.getMethod().equals(methodCall)) {
                             String code = "";
-                            code += CallbackInfo.class.getName() + " info = new " + CallbackInfo.class.getName() + "(this, $args, $mArgs);";
+                            code += newInfo;
                             code +=
                                     methodToCallback.getReturnType().getName() + " var = this.bytecodeClass." + methodToCallback.getName()
                                     + "(info);";
@@ -605,14 +914,20 @@ public class BytecodeClass {
     }
 
     public void insert(String methodName, CtMethod methodToInsert, CodeInsertionMode insertionMode, Position position) {
+        insert(methodName, methodToInsert, insertionMode, position, true);
+    }
+
+    public void insert(String methodName, CtMethod methodToInsert, CodeInsertionMode insertionMode, Position position, boolean captureArguments) {
         final CtMethod method = Mappings.getCtMethod(clazz, methodName);
 
         addBytecodeClassField(method.getDeclaringClass());
 
-        addArgumentsVariable(methodName);
+        if (captureArguments) {
+            addArgumentsVariable(methodName);
+        }
 
         String codeToAdd = "";
-        codeToAdd += CallbackInfo.class.getName() + " info = new " + CallbackInfo.class.getName() + "(this, $args, $mArgs);";
+        codeToAdd += newCallbackInfo(captureArguments);
         codeToAdd += "this.bytecodeClass." + methodToInsert.getName() + "(info);";
         codeToAdd += "if (info.isCancelled()) return;";
 
@@ -695,6 +1010,11 @@ public class BytecodeClass {
         }
     }
 
+    private static String newCallbackInfo(boolean captureArguments) {
+        String arguments = captureArguments ? "$args, $mArgs" : "null, null";
+        return CallbackInfo.class.getName() + " info = new " + CallbackInfo.class.getName() + "(this, " + arguments + ");";
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -730,29 +1050,13 @@ public class BytecodeClass {
                 Throwables.propagate(e);
             }
         }
-    }
-
-    // Used by bytecode
-    public static ProxyHandlerCallback createCallback(final Object caller, Method method) {
-        try {
-            method.setAccessible(true);
-            final MethodHandle handle = MethodHandles.lookup().unreflect(method);
 
-            return new ProxyHandlerCallback() {
-                @Override
-                public Object invokeParent(Object... args) throws Throwable {
-                    return handle.invokeWithArguments(ArrayUtils.add(args, 0, caller));
-                }
-            };
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
-        }
-        return null;
+        ReflectionUtils.forgetMissingClasses();
     }
 
     public static interface ProxyHandlerCallback {
 
-        Object invokeParent(Object... args) throws Throwable;
+        Object invokeParent(Object caller, Object... args) throws Throwable;
     }
 
     public static interface PostCallback {
@@ -766,10 +1070,10 @@ public class BytecodeClass {
         public Object preHandle(final Object caller, Object[] args, final Method method) throws Throwable {
             ProxyHandlerCallback callback = new ProxyHandlerCallback() {
                 @Override
-                public Object invokeParent(Object... args) throws Throwable {
+                public Object invokeParent(Object parent, Object... args) throws Throwable {
                     method.setAccessible(true);
                     MethodHandle handle = MethodHandles.lookup().unreflect(method);
-                    return handle.invokeWithArguments(ArrayUtils.add(args, 0, caller));
+                    return handle.invokeWithArguments(ArrayUtils.add(args, 0, parent));
                 }
             };
 
@@ -35,7 +35,10 @@ import org.granitepowered.granite.mc.Implement;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class BytecodeModifier {
 
@@ -51,6 +54,8 @@ public class BytecodeModifier {
 
     public void modify() {
         try {
+            Map<CtClass, BytecodeClass> implemented = new LinkedHashMap<>();
+
             for (ClassPath.ClassInfo classInfo : ClassPath.from(ClassLoader.getSystemClassLoader())
                     .getTopLevelClassesRecursive("org.granitepowered.granite.mc")) {
                 CtClass ctClass = ClassPool.getDefault().get(classInfo.getName());
@@ -70,6 +75,16 @@ public class BytecodeModifier {
                     bcs.add(bc);
 
                     bc.implement(BytecodeClass.getFromCt(ctClass));
+
+                    if (!implemented.containsKey(mcClass)) {
+                        implemented.put(mcClass, bc);
+                    }
+                }
+            }
+
+            for (Map.Entry<CtClass, BytecodeClass> entry : implemented.entrySet()) {
+                if (!entry.getKey().isInterface() && !hasImplementedSuperclass(entry.getKey(), implemented.keySet())) {
+                    entry.getValue().addCompositeField();
                 }
             }
 
@@ -81,6 +96,15 @@ public class BytecodeModifier {
         }
     }
 
+    private boolean hasImplementedSuperclass(CtClass mcClass, Set<CtClass> implemented) throws NotFoundException {
+        for (CtClass superclass = mcClass.getSuperclass(); superclass != null; superclass = superclass.getSuperclass()) {
+            if (implemented.contains(superclass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void post() {
         for (BytecodeClass bc : bcs) {
             bc.post();
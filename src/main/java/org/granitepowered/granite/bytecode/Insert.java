@@ -30,4 +30,10 @@ public @interface Insert {
     CodeInsertionMode mode();
 
     Position position();
+
+    /**
+     * Whether the hook needs {@link CallbackInfo#getMethodArguments()} and {@link CallbackInfo#getCallerArguments()}.
+     * Turning this off stops the woven method from copying and boxing its arguments on every call.
+     */
+    boolean captureArguments() default true;
 }
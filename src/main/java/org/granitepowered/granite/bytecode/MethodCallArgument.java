@@ -32,4 +32,10 @@ public @interface MethodCallArgument {
     String methodCallName();
 
     int argumentIndex();
+
+    /**
+     * Whether the hook needs {@link CallbackInfo#getMethodArguments()} and {@link CallbackInfo#getCallerArguments()}.
+     * Turning this off stops the woven method from copying and boxing its arguments on every call.
+     */
+    boolean captureArguments() default true;
 }
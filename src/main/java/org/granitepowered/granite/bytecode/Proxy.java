@@ -23,7 +23,15 @@
 
 package org.granitepowered.granite.bytecode;
 
+import org.spongepowered.api.util.event.Event;
+
 public @interface Proxy {
 
     String methodName();
+
+    /**
+     * The events the handler posts. If this is set and none of them have listeners, the woven method calls the
+     * original method directly and the handler is never run, so it must not do anything besides posting these events.
+     */
+    Class<? extends Event>[] events() default {};
 }
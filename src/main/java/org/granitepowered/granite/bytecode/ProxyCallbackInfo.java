@@ -23,10 +23,15 @@
 
 package org.granitepowered.granite.bytecode;
 
+/**
+ * Passed to {@link Proxy} handlers. The weaver generates a subclass of this for every proxied method which keeps the
+ * arguments in typed fields, so no argument array is built (and no primitives are boxed) unless
+ * {@link #getArguments()} is actually called.
+ */
 public class ProxyCallbackInfo<T> {
 
     private T caller;
-    private Object[] arguments;
+    protected Object[] arguments;
     private BytecodeClass.ProxyHandlerCallback callback;
 
     public ProxyCallbackInfo(T caller, Object[] arguments, BytecodeClass.ProxyHandlerCallback callback) {
@@ -43,11 +48,47 @@ public class ProxyCallbackInfo<T> {
         return arguments;
     }
 
+    public Object getArgument(int index) {
+        return getArguments()[index];
+    }
+
+    public boolean getBoolean(int index) {
+        return (Boolean) getArgument(index);
+    }
+
+    public byte getByte(int index) {
+        return (Byte) getArgument(index);
+    }
+
+    public char getChar(int index) {
+        return (Character) getArgument(index);
+    }
+
+    public short getShort(int index) {
+        return (Short) getArgument(index);
+    }
+
+    public int getInt(int index) {
+        return (Integer) getArgument(index);
+    }
+
+    public long getLong(int index) {
+        return (Long) getArgument(index);
+    }
+
+    public float getFloat(int index) {
+        return (Float) getArgument(index);
+    }
+
+    public double getDouble(int index) {
+        return (Double) getArgument(index);
+    }
+
     public Object callback(Object... arguments) throws Throwable {
-        return callback.invokeParent(arguments);
+        return callback.invokeParent(caller, arguments);
     }
 
     public Object callback() throws Throwable {
-        return callback(arguments);
+        return callback(getArguments());
     }
 }
@@ -45,7 +45,7 @@ public class CommandHandlerClass extends BytecodeClass {
 
     @Proxy(methodName = "executeCommand")
     public Object executeCommand(ProxyCallbackInfo info) throws Throwable {
-        String fullCommand = (String) info.getArguments()[1];
+        String fullCommand = (String) info.getArgument(1);
 
         if (fullCommand.startsWith("/")) {
             fullCommand = fullCommand.substring(1);
@@ -55,7 +55,7 @@ public class CommandHandlerClass extends BytecodeClass {
         String commandName = commandArgs[0];
         commandArgs = Arrays.copyOfRange(commandArgs, 1, commandArgs.length);
 
-        CommandSource sender = wrap((MCInterface) info.getArguments()[0]);
+        CommandSource sender = wrap((MCInterface) info.getArgument(0));
 
         GraniteCommandEvent event = new GraniteCommandEvent(commandName, StringUtils.join(commandArgs, " "), sender);
         Granite.getInstance().getEventManager().post(event);
@@ -68,7 +68,7 @@ public class CommandHandlerClass extends BytecodeClass {
         }
 
         if (!event.isCancelled()) {
-            return info.callback(info.getArguments());
+            return info.callback();
         } else {
             return 0;
         }
@@ -62,9 +62,11 @@ public class DedicatedServerClass extends BytecodeClass {
 
         info.callback();
 
+        Granite.getInstance().getAsyncScheduler().shutdown();
         Granite.getInstance().getEventManager().post(new GraniteServerStoppedEvent());
     }
 
+    @Proxy(methodName = "tick")
     public void tick(ProxyCallbackInfo info) throws Throwable {
         Granite.getInstance().getScheduler().tick();
 
@@ -42,7 +42,7 @@ public class EntityClass extends BytecodeClass {
         super("Entity");
     }
 
-    @Proxy(methodName = "moveEntity")
+    @Proxy(methodName = "moveEntity", events = GraniteEntityMoveEvent.class)
     public Object moveEntity(ProxyCallbackInfo<MCEntity> info) throws Throwable {
         if (!(info.getCaller() instanceof MCEntityPlayerMP)) {
             double oldX, oldY, oldZ;
@@ -37,7 +37,8 @@ public class EntityEggClass extends BytecodeClass {
         super("EntityEgg");
     }
 
-    @MethodCallArgument(methodName = "onImpact", methodCallClass = "Entity", methodCallName = "attackEntityFrom", argumentIndex = 1)
+    @MethodCallArgument(methodName = "onImpact", methodCallClass = "Entity", methodCallName = "attackEntityFrom", argumentIndex = 1,
+                        captureArguments = false)
     public float onImpactDamage(CallbackInfo<MCEntityEgg> info) {
         return (float) ((GraniteEntityEgg) wrap(info.getCaller())).getDamage();
     }
@@ -38,14 +38,16 @@ public class EntityLightningBoltClass extends BytecodeClass {
         super("EntityLightningBolt");
     }
 
-    @Insert(methodName = "onUpdate", mode = CodeInsertionMode.BEFORE, position = @Position(mode = Position.PositionMode.NEW, value = "BlockPos"))
+    @Insert(methodName = "onUpdate", mode = CodeInsertionMode.BEFORE, position = @Position(mode = Position.PositionMode.NEW, value = "BlockPos"),
+            captureArguments = false)
     public void onUpdateBP(CallbackInfo<MCEntityLightningBolt> info) {
         if (((GraniteEntityLightningBolt) MinecraftUtils.wrap(info.getCaller())).isEffect()) {
             info.cancel();
         }
     }
 
-    @Insert(methodName = "onUpdate", mode = CodeInsertionMode.BEFORE, position = @Position(mode = Position.PositionMode.NEW, value = "AxisAlignedBB"))
+    @Insert(methodName = "onUpdate", mode = CodeInsertionMode.BEFORE, position = @Position(mode = Position.PositionMode.NEW, value = "AxisAlignedBB"),
+            captureArguments = false)
     public void onUpdateAABB(CallbackInfo<MCEntityLightningBolt> info) {
         if (((GraniteEntityLightningBolt) MinecraftUtils.wrap(info.getCaller())).isEffect()) {
             info.cancel();
@@ -68,7 +68,7 @@ public class EntityPlayerMPClass extends BytecodeClass {
     @Proxy(methodName = "onDeath")
     public Object onDeath(ProxyCallbackInfo<MCEntityPlayerMP> info) throws Throwable {
         GraniteEntityPlayerMP player = new GraniteEntityPlayerMP(info.getCaller());
-        MCDamageSource source = (MCDamageSource) info.getArguments()[0];
+        MCDamageSource source = (MCDamageSource) info.getArgument(0);
 
         MCChatComponent deathComponent = info.getCaller().fieldGet$_combatTracker().func_151521_b();
         Message deathMessage = MinecraftUtils.minecraftToGraniteMessage(deathComponent);
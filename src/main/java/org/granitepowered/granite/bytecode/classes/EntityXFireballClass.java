@@ -37,7 +37,8 @@ public class EntityXFireballClass extends BytecodeClass {
         super(clazz);
     }
 
-    @MethodCallArgument(methodName = "onImpact", methodCallClass = "Entity", methodCallName = "attackEntityFrom", argumentIndex = 1)
+    @MethodCallArgument(methodName = "onImpact", methodCallClass = "Entity", methodCallName = "attackEntityFrom", argumentIndex = 1,
+                        captureArguments = false)
     public float onImpactDamage(CallbackInfo<MCEntityFireball> info) {
         return (float) ((GraniteFireball) wrap(info.getCaller())).getDamage();
     }
@@ -38,8 +38,6 @@ import org.granitepowered.granite.impl.event.player.GranitePlayerBreakBlockEvent
 import org.granitepowered.granite.impl.world.GraniteWorld;
 import org.granitepowered.granite.mc.MCBlockPos;
 import org.granitepowered.granite.mc.MCItemInWorldManager;
-import org.granitepowered.granite.mc.MCPacket;
-import org.granitepowered.granite.util.Instantiator;
 import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.world.Location;
 
@@ -49,9 +47,9 @@ public class ItemInWorldManagerClass extends BytecodeClass {
         super("ItemInWorldManager");
     }
 
-    @Proxy(methodName = "func_180237_b")
+    @Proxy(methodName = "func_180237_b", events = GranitePlayerBreakBlockEvent.class)
     public Object func_180237_b(ProxyCallbackInfo<MCItemInWorldManager> info) throws Throwable {
-        MCBlockPos mcBlockPos = (MCBlockPos) info.getArguments()[0];
+        MCBlockPos mcBlockPos = (MCBlockPos) info.getArgument(0);
         Vector3d pos = new Vector3d(mcBlockPos.fieldGet$x(), mcBlockPos.fieldGet$y(), mcBlockPos.fieldGet$z());
 
         GraniteEntityPlayerMP player = wrap(info.getCaller().fieldGet$thisPlayerMP());
@@ -63,10 +61,9 @@ public class ItemInWorldManagerClass extends BytecodeClass {
         Granite.getInstance().getServer().getEventManager().post(event);
 
         if (!event.isCancelled()) {
-            return info.callback(info.getArguments());
+            return info.callback();
         } else {
-            MCPacket p = Instantiator.get().newPacketBlockChange(info.getCaller().fieldGet$theWorld(), mcBlockPos);
-            player.sendPacket(p);
+            ((GraniteWorld) wrap(info.getCaller().fieldGet$theWorld())).sendBlockChange(mcBlockPos);
             return false;
         }
     }
@@ -38,9 +38,7 @@ import org.granitepowered.granite.mc.MCBlockPos;
 import org.granitepowered.granite.mc.MCEntityPlayerMP;
 import org.granitepowered.granite.mc.MCEnumFacing;
 import org.granitepowered.granite.mc.MCItemStack;
-import org.granitepowered.granite.mc.MCPacket;
 import org.granitepowered.granite.mc.MCWorld;
-import org.granitepowered.granite.util.Instantiator;
 import org.spongepowered.api.block.BlockLoc;
 import org.spongepowered.api.block.BlockSnapshot;
 
@@ -50,12 +48,12 @@ public class ItemStackClass extends BytecodeClass {
         super("ItemStack");
     }
 
-    @Proxy(methodName = "onItemUse")
+    @Proxy(methodName = "onItemUse", events = GranitePlayerPlaceBlockEvent.class)
     public Object onItemUse(ProxyCallbackInfo<MCItemStack> info) throws Throwable {
-        MCEntityPlayerMP mcPlayer = (MCEntityPlayerMP) info.getArguments()[0];
-        MCWorld mcWorld = (MCWorld) info.getArguments()[1];
-        MCBlockPos posClicked = (MCBlockPos) info.getArguments()[2];
-        MCEnumFacing face = (MCEnumFacing) info.getArguments()[3];
+        MCEntityPlayerMP mcPlayer = (MCEntityPlayerMP) info.getArgument(0);
+        MCWorld mcWorld = (MCWorld) info.getArgument(1);
+        MCBlockPos posClicked = (MCBlockPos) info.getArgument(2);
+        MCEnumFacing face = (MCEnumFacing) info.getArgument(3);
 
         GraniteEntityPlayerMP player = wrap(mcPlayer);
         GraniteWorld world = wrap(mcWorld);
@@ -83,13 +81,8 @@ public class ItemStackClass extends BytecodeClass {
             if (event.isCancelled()) {
                 loc.replaceWith(oldSnapshot);
 
-                MCPacket clickedUpdate = Instantiator.get().newPacketBlockChange(mcPlayer.fieldGet$worldObj(), posClicked);
-
-                player.sendPacket(clickedUpdate);
-
-                MCPacket placedUpdate = Instantiator.get().newPacketBlockChange(mcPlayer.fieldGet$worldObj(), posPlaced);
-
-                player.sendPacket(placedUpdate);
+                world.sendBlockChange(posClicked);
+                world.sendBlockChange(posPlaced);
             }
             return !event.isCancelled();
         } else {
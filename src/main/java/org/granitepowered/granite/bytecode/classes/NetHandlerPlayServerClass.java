@@ -39,6 +39,7 @@ import org.granitepowered.granite.mc.MCNetHandlerPlayServer;
 import org.granitepowered.granite.mc.MCPacket;
 import org.granitepowered.granite.mc.MCPacketChatMessage;
 import org.granitepowered.granite.mc.MCPacketPlayer;
+import org.granitepowered.granite.util.StaticInvoker;
 import org.spongepowered.api.world.Location;
 
 import java.lang.reflect.Constructor;
@@ -51,11 +52,11 @@ public class NetHandlerPlayServerClass extends BytecodeClass {
         super("NetHandlerPlayServer");
     }
 
-    @Proxy(methodName = "processChatMessage")
+    @Proxy(methodName = "processChatMessage", events = GranitePlayerChatEvent.class)
     public Object processChatMessage(ProxyCallbackInfo<MCNetHandlerPlayServer> info) throws Throwable {
-        quickExitThreadIfNotServer((MCPacket) info.getArguments()[0], info.getCaller());
+        quickExitThreadIfNotServer((MCPacket) info.getArgument(0), info.getCaller());
 
-        MCPacketChatMessage packet = (MCPacketChatMessage) info.getArguments()[0];
+        MCPacketChatMessage packet = (MCPacketChatMessage) info.getArgument(0);
         String message = packet.fieldGet$message();
 
         GraniteEntityPlayerMP p = wrap(info.getCaller().fieldGet$playerEntity());
@@ -65,15 +66,15 @@ public class NetHandlerPlayServerClass extends BytecodeClass {
         return info.callback();
     }
 
-    @Proxy(methodName = "processPlayer")
+    @Proxy(methodName = "processPlayer", events = GranitePlayerMoveEvent.class)
     public Object processPlayer(ProxyCallbackInfo<MCNetHandlerPlayServer> info) throws Throwable {
-        quickExitThreadIfNotServer((MCPacket) info.getArguments()[0], info.getCaller());
+        quickExitThreadIfNotServer((MCPacket) info.getArgument(0), info.getCaller());
 
         GraniteEntityPlayerMP player = wrap(info.getCaller().fieldGet$playerEntity());
         Location old = player.getLocation();
         Location new_ = new Location(old.getExtent(), new Vector3d(0, 0, 0));
 
-        MCPacketPlayer packet = (MCPacketPlayer) info.getArguments()[0];
+        MCPacketPlayer packet = (MCPacketPlayer) info.getArgument(0);
 
         // If setting position (for some reason MCP doesn't wanna name the field correctly)
         if (packet.fieldGet$field_149480_h()) {
@@ -89,10 +90,10 @@ public class NetHandlerPlayServerClass extends BytecodeClass {
             Granite.getInstance().getEventManager().post(event);
 
             if (!event.isCancelled()) {
-                info.callback(info.getArguments());
+                info.callback();
             }
         } else {
-            info.callback(info.getArguments());
+            info.callback();
         }
         return null;
     }
@@ -110,8 +111,6 @@ public class NetHandlerPlayServerClass extends BytecodeClass {
     }
 
     public void quickExitThreadIfNotServer(MCPacket packet, MCNetHandlerPlayServer netHandlerPlayServer) {
-        Mappings.invokeStatic(
-                "PacketThreadUtil", "func_180031_a",
-                packet, netHandlerPlayServer, netHandlerPlayServer.fieldGet$playerEntity().fieldGet$worldObj());
+        StaticInvoker.get().checkThreadAndEnqueue(packet, netHandlerPlayServer, netHandlerPlayServer.fieldGet$playerEntity().fieldGet$worldObj());
     }
 }
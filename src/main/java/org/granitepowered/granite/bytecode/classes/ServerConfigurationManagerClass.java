@@ -55,14 +55,15 @@ public class ServerConfigurationManagerClass extends BytecodeClass {
         super("ServerConfigurationManager");
     }
 
-    @MethodCallArgument(methodName = "initializeConnectionToPlayer", methodCallClass = "ServerConfigurationManager", methodCallName = "sendChatMsg", argumentIndex = 0)
+    @MethodCallArgument(methodName = "initializeConnectionToPlayer", methodCallClass = "ServerConfigurationManager", methodCallName = "sendChatMsg", argumentIndex = 0,
+                        captureArguments = false)
     public MCChatComponent initializeConnectionToPlayerJoinMessage(CallbackInfo<MCServerConfigurationManager> info) {
         return joinMessage.get();
     }
 
     @Proxy(methodName = "initializeConnectionToPlayer")
     public Object initializeConnectionToPlayer(ProxyCallbackInfo<MCServerConfigurationManager> info) throws Throwable {
-        MCEntityPlayerMP player = (MCEntityPlayerMP) info.getArguments()[1];
+        MCEntityPlayerMP player = (MCEntityPlayerMP) info.getArgument(1);
 
         MCGameProfile newProfile = player.fieldGet$gameProfile();
         MCGameProfile oldProfile = Granite.getInstance().getServer().obj.fieldGet$playerCache().func_152652_a(newProfile.fieldGet$id());
@@ -80,11 +81,37 @@ public class ServerConfigurationManagerClass extends BytecodeClass {
                             .build();
         }
 
-        GranitePlayerJoinEvent event = new GranitePlayerJoinEvent((GraniteEntityPlayerMP) wrap(player), joinMessage);
-        Granite.getInstance().getServer().getEventManager().post(event);
+        GraniteEntityPlayerMP granitePlayer = wrap(player);
 
-        this.joinMessage.set(MinecraftUtils.graniteToMinecraftChatComponent(event.getJoinMessage()));
-        return info.callback(info.getArguments()[0], info.getArguments()[1]);
+        // Join event handlers should already find the joining player through the server
+        Granite.getInstance().getServer().addPlayer(granitePlayer);
+        try {
+            GranitePlayerJoinEvent event = new GranitePlayerJoinEvent(granitePlayer, joinMessage);
+            Granite.getInstance().getServer().getEventManager().post(event);
+
+            this.joinMessage.set(MinecraftUtils.graniteToMinecraftChatComponent(event.getJoinMessage()));
+            return info.callback();
+        } catch (Throwable t) {
+            Granite.getInstance().getServer().removePlayer(granitePlayer);
+            throw t;
+        }
+    }
+
+    @Proxy(methodName = "playerLoggedOut")
+    public Object playerLoggedOut(ProxyCallbackInfo<MCServerConfigurationManager> info) throws Throwable {
+        Granite.getInstance().getServer().removePlayer((GraniteEntityPlayerMP) wrap((MCEntityPlayerMP) info.getArgument(0)));
+
+        return info.callback();
+    }
+
+    @Proxy(methodName = "recreatePlayerEntity")
+    public Object recreatePlayerEntity(ProxyCallbackInfo<MCServerConfigurationManager> info) throws Throwable {
+        Object ret = info.callback();
+
+        // Respawning replaces the player's entity, so the indexes have to point at the new one
+        Granite.getInstance().getServer().removePlayer((GraniteEntityPlayerMP) wrap((MCEntityPlayerMP) info.getArgument(0)));
+        Granite.getInstance().getServer().addPlayer((GraniteEntityPlayerMP) wrap((MCEntityPlayerMP) ret));
+        return ret;
     }
 
     /*@Proxy(methodName = "sendChatMsg")
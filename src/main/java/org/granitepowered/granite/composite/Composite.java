@@ -24,16 +24,58 @@
 package org.granitepowered.granite.composite;
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import javassist.NotFoundException;
 import org.granitepowered.granite.mc.MCInterface;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class Composite<T extends MCInterface> {
 
-    public static Map<Class<? extends Composite>, Map<Object, Composite>> instanceMap = new HashMap<>();
+    /**
+     * One cache per composite type. Keys are compared by identity and held weakly. Values are held weakly too, since a
+     * composite references its Minecraft object and would otherwise keep its own key alive. Composites can hold state of
+     * their own, so one must not be dropped while its Minecraft object is alive: MinecraftUtils.wrap stores it in the
+     * object's {@link CompositeHolder} field, which keeps it reachable for exactly as long as its key. For the same reason
+     * the caches have no size cap.
+     */
+    private static final ConcurrentMap<Class<? extends Composite>, Cache<MCInterface, Composite>> instanceCaches = new ConcurrentHashMap<>();
+
+    /**
+     * Factories per Minecraft class, by composite type. The constructor to use only depends on the pair, so it is looked up once.
+     */
+    private static final ClassValue<ConcurrentMap<Class<? extends Composite>, CompositeFactory>> factories =
+            new ClassValue<ConcurrentMap<Class<? extends Composite>, CompositeFactory>>() {
+                @Override
+                protected ConcurrentMap<Class<? extends Composite>, CompositeFactory> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /**
+     * Generated factories per constructor, shared by all Minecraft classes that end up using the same constructor.
+     */
+    private static final ConcurrentMap<Constructor<?>, CompositeFactory> constructorFactories = new ConcurrentHashMap<>();
+    private static final AtomicInteger factoryId = new AtomicInteger();
+
+    private static final CompositeFactory NULL_FACTORY = new CompositeFactory() {
+        @Override
+        public Composite create(Object parent) {
+            return null;
+        }
+    };
     public T obj;
 
     public Composite(Object obj) {
@@ -99,26 +141,155 @@ public abstract class Composite<T extends MCInterface> {
     }*/
 
 
-    public static <T extends Composite> T new_(MCInterface parent, Class<T> compositeType) {
-        if (!instanceMap.containsKey(compositeType)) {
-            instanceMap.put(compositeType, new HashMap<Object, Composite>());
+    /**
+     * Gets the composite for a Minecraft object. Objects that are a {@link CompositeHolder} keep their composite in a field, so only
+     * the first call for each of them goes through the cache.
+     *
+     * @param obj            The Minecraft object
+     * @param compositeTypes The composite type for each Minecraft class, or null if the class has none
+     * @return The composite, or null if the object's class has no composite type
+     */
+    public static <T extends Composite> T wrap(MCInterface obj, ClassValue<Class<? extends Composite>> compositeTypes) {
+        if (obj instanceof CompositeHolder) {
+            CompositeHolder holder = (CompositeHolder) obj;
+
+            Composite composite = holder.granite$getComposite();
+            if (composite == null) {
+                // new_ makes sure racing threads end up with the same composite
+                composite = wrapUncached(obj, compositeTypes);
+                holder.granite$setComposite(composite);
+            }
+            return (T) composite;
         }
-        if (instanceMap.get(compositeType).containsKey(parent)) {
-            return (T) instanceMap.get(compositeType).get(parent);
+
+        return wrapUncached(obj, compositeTypes);
+    }
+
+    private static <T extends Composite> T wrapUncached(MCInterface obj, ClassValue<Class<? extends Composite>> compositeTypes) {
+        Class<? extends Composite> compositeType = compositeTypes.get(obj.getClass());
+        if (compositeType != null) {
+            return (T) new_(obj, compositeType);
         } else {
-            T composite = null;
-            try {
-                for (Constructor c : compositeType.getConstructors()) {
-                    if (c.getParameterTypes().length == 1 && c.getParameterTypes()[0].isAssignableFrom(parent.getClass())) {
-                        composite = (T) c.newInstance(parent);
-                    }
+            return null;
+        }
+    }
+
+    public static <T extends Composite> T new_(MCInterface parent, Class<T> compositeType) {
+        Cache<MCInterface, Composite> cache = getCache(compositeType);
+
+        Composite composite = cache.getIfPresent(parent);
+        if (composite == null) {
+            composite = create(parent, compositeType);
+
+            if (composite != null) {
+                // Another thread may have wrapped the same object in the meantime; only one composite may win
+                Composite existing = cache.asMap().putIfAbsent(parent, composite);
+                if (existing != null) {
+                    composite = existing;
                 }
-            } catch (InstantiationException | IllegalAccessException | InvocationTargetException | IllegalArgumentException e) {
-                Throwables.propagate(e);
             }
-            instanceMap.get(compositeType).put(parent, composite);
-            return composite;
         }
+        return (T) composite;
+    }
+
+    private static <T extends Composite> T create(MCInterface parent, Class<T> compositeType) {
+        ConcurrentMap<Class<? extends Composite>, CompositeFactory> byType = factories.get(parent.getClass());
+
+        CompositeFactory factory = byType.get(compositeType);
+        if (factory == null) {
+            factory = getFactory(parent.getClass(), compositeType);
+            byType.put(compositeType, factory);
+        }
+
+        return (T) factory.create(parent);
+    }
+
+    private static CompositeFactory getFactory(Class<?> parentType, Class<? extends Composite> compositeType) {
+        Constructor<?> constructor = null;
+        for (Constructor<?> c : compositeType.getConstructors()) {
+            if (c.getParameterTypes().length == 1 && c.getParameterTypes()[0].isAssignableFrom(parentType)) {
+                constructor = c;
+            }
+        }
+
+        if (constructor == null) {
+            return NULL_FACTORY;
+        }
+
+        CompositeFactory factory = constructorFactories.get(constructor);
+        if (factory == null) {
+            factory = generateFactory(constructor);
+
+            CompositeFactory existing = constructorFactories.putIfAbsent(constructor, factory);
+            if (existing != null) {
+                factory = existing;
+            }
+        }
+        return factory;
+    }
+
+    private static CompositeFactory generateFactory(Constructor<?> constructor) {
+        Class<?> compositeType = constructor.getDeclaringClass();
+        Class<?> parameterType = constructor.getParameterTypes()[0];
+
+        try {
+            // The factory only refers to the composite and its parameter type, both of which its class loader can see
+            ClassPool pool = new ClassPool(true);
+            pool.appendClassPath(new LoaderClassPath(compositeType.getClassLoader()));
+
+            CtClass factory = pool.makeClass(compositeType.getName() + "$Factory$" + factoryId.incrementAndGet());
+            factory.addInterface(pool.get(CompositeFactory.class.getName()));
+            factory.addConstructor(CtNewConstructor.defaultConstructor(factory));
+
+            String body = "public " + Composite.class.getName() + " create(Object parent) {";
+            body += "return new " + compositeType.getName() + "((" + parameterType.getName() + ") $1);";
+            body += "}";
+            factory.addMethod(CtNewMethod.make(body, factory));
+
+            Class<?> factoryClass = factory.toClass(compositeType.getClassLoader(), compositeType.getProtectionDomain());
+            factory.detach();
+
+            return (CompositeFactory) factoryClass.newInstance();
+        } catch (NotFoundException | CannotCompileException | InstantiationException | IllegalAccessException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    private static Cache<MCInterface, Composite> getCache(Class<? extends Composite> compositeType) {
+        Cache<MCInterface, Composite> cache = instanceCaches.get(compositeType);
+        if (cache == null) {
+            cache = CacheBuilder.newBuilder().weakKeys().weakValues().recordStats().build();
+
+            Cache<MCInterface, Composite> existing = instanceCaches.putIfAbsent(compositeType, cache);
+            if (existing != null) {
+                cache = existing;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Gets the combined hit, miss and eviction counts of all composite caches. Collected entries count as evictions.
+     *
+     * @return The stats
+     */
+    public static CacheStats getCacheStats() {
+        CacheStats stats = new CacheStats(0, 0, 0, 0, 0, 0);
+        for (Cache<MCInterface, Composite> cache : instanceCaches.values()) {
+            stats = stats.plus(cache.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * @return The approximate number of composites currently cached
+     */
+    public static long getCacheSize() {
+        long size = 0;
+        for (Cache<MCInterface, Composite> cache : instanceCaches.values()) {
+            size += cache.size();
+        }
+        return size;
     }
 
     @Override
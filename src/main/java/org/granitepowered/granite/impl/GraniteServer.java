@@ -23,18 +23,16 @@
 
 package org.granitepowered.granite.impl;
 
-import static org.granitepowered.granite.util.MinecraftUtils.wrap;
-
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
-import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Collections2;
 import com.google.common.collect.Iterables;
 import org.apache.commons.lang3.NotImplementedException;
 import org.granitepowered.granite.Granite;
 import org.granitepowered.granite.composite.Composite;
+import org.granitepowered.granite.impl.entity.player.GraniteEntityPlayerMP;
 import org.granitepowered.granite.impl.world.GraniteWorld;
 import org.granitepowered.granite.mappings.Mappings;
-import org.granitepowered.granite.mc.MCEntityPlayerMP;
 import org.granitepowered.granite.mc.MCServer;
 import org.granitepowered.granite.mc.MCServerConfigurationManager;
 import org.granitepowered.granite.mc.MCWorld;
@@ -62,15 +60,21 @@ import java.io.File;
 import java.net.InetSocketAddress;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class GraniteServer extends Composite<MCServer> implements Game, Server {
 
     public static String version;
 
+    private final ConcurrentMap<UUID, GraniteEntityPlayerMP> playersByUuid = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, GraniteEntityPlayerMP> playersByName = new ConcurrentHashMap<>();
+    private final Collection<Player> onlinePlayers = Collections.<Player>unmodifiableCollection(playersByUuid.values());
+
     public GraniteServer() {
         super(Mappings.getClass("DedicatedServer"), new Class[]{File.class}, new File("worlds/"));
         obj.startServerThread();
@@ -108,12 +112,12 @@ public class GraniteServer extends Composite<MCServer> implements Game, Server {
 
     @Override
     public SynchronousScheduler getSyncScheduler() {
-        throw new NotImplementedException("");
+        return Granite.instance.getScheduler();
     }
 
     @Override
     public AsynchronousScheduler getAsyncScheduler() {
-        throw new NotImplementedException("");
+        return Granite.instance.getAsyncScheduler();
     }
 
     @Override
@@ -138,13 +142,7 @@ public class GraniteServer extends Composite<MCServer> implements Game, Server {
 
     @Override
     public Collection<Player> getOnlinePlayers() {
-        Set<Player> ret = new HashSet<>();
-
-        for (MCEntityPlayerMP playerEntity : getSCM().fieldGet$playerEntityList()) {
-            ret.add((Player) wrap(playerEntity));
-        }
-
-        return ret;
+        return onlinePlayers;
     }
 
     @Override
@@ -154,29 +152,38 @@ public class GraniteServer extends Composite<MCServer> implements Game, Server {
 
     @Override
     public Optional<Player> getPlayer(UUID uuid) {
-        for (Player player : getOnlinePlayers()) {
-            if (player.getUniqueId().equals(uuid)) {
-                return Optional.of(player);
-            }
-        }
-        return Optional.absent();
+        return Optional.<Player>fromNullable(playersByUuid.get(uuid));
     }
 
     @Override
     public Optional<Player> getPlayer(String s) {
-        for (Player player : getOnlinePlayers()) {
-            if (player.getName().equals(s)) {
-                return Optional.of(player);
-            }
-        }
-        return Optional.absent();
+        return Optional.<Player>fromNullable(playersByName.get(s.toLowerCase(Locale.ENGLISH)));
+    }
+
+    /**
+     * Adds a player to the online player indexes. Called when a player joins or respawns.
+     *
+     * @param player The player
+     */
+    public void addPlayer(GraniteEntityPlayerMP player) {
+        playersByUuid.put(player.getUniqueId(), player);
+        playersByName.put(player.getName().toLowerCase(Locale.ENGLISH), player);
+    }
+
+    /**
+     * Removes a player from the online player indexes. Called when a player leaves, or their entity is replaced on respawn.
+     *
+     * @param player The player
+     */
+    public void removePlayer(GraniteEntityPlayerMP player) {
+        playersByUuid.remove(player.getUniqueId(), player);
+        playersByName.remove(player.getName().toLowerCase(Locale.ENGLISH), player);
     }
 
     @Override
     public Collection<World> getWorlds() {
-        return ImmutableList
-                .<World>copyOf(
-                        Iterables.transform(Arrays.asList((MCWorld[]) obj.fieldGet$worldServers()), new MinecraftUtils.WrapFunction<GraniteWorld>()));
+        return Collections.<World>unmodifiableCollection(
+                Collections2.transform(Arrays.asList((MCWorld[]) obj.fieldGet$worldServers()), new MinecraftUtils.WrapFunction<GraniteWorld>()));
     }
 
     @Override
@@ -44,6 +44,7 @@ import org.granitepowered.granite.mc.MCItemStack;
 import org.granitepowered.granite.mc.MCMaterial;
 import org.granitepowered.granite.util.MinecraftUtils;
 import org.granitepowered.granite.util.ReflectionUtils;
+import org.granitepowered.granite.util.StaticInvoker;
 import org.spongepowered.api.block.BlockLoc;
 import org.spongepowered.api.block.BlockSnapshot;
 import org.spongepowered.api.block.BlockState;
@@ -231,7 +232,7 @@ public class GraniteBlockLoc implements BlockLoc {
         }
 
         if (strength > 2.0F) {
-            int efficiencyModifier = (int) Mappings.invokeStatic("EnchantmentHelper", "getEnchantmentLevel", 32, ((GraniteItemStack) itemStack).obj);
+            int efficiencyModifier = StaticInvoker.get().getEnchantmentLevel(32, ((GraniteItemStack) itemStack).obj);
 
             if (efficiencyModifier > 0) {
                 strength += efficiencyModifier * efficiencyModifier + 1;
@@ -23,6 +23,7 @@
 
 package org.granitepowered.granite.impl.guice;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.collect.Maps;
@@ -34,25 +35,59 @@ import org.spongepowered.api.plugin.PluginContainer;
 
 import java.util.Map;
 
+/**
+ * Guice scope for objects that belong to the plugin currently running on this thread.
+ *
+ * <p>Each thread keeps a stack of preallocated frames, so entering and leaving the scope doesn't allocate once a thread has
+ * been through it before. Scopes can be nested, e.g. when a handler posts another event; leaving the inner scope restores the
+ * outer plugin.</p>
+ */
 public class PluginScope implements Scope {
 
-    private final ThreadLocal<Map<Key<?>, Object>> values = new ThreadLocal<>();
+    private static final Key<PluginContainer> CONTAINER_KEY = Key.get(PluginContainer.class);
+
+    private final ThreadLocal<Frames> frames = new ThreadLocal<Frames>() {
+        @Override
+        protected Frames initialValue() {
+            return new Frames();
+        }
+    };
 
     public void enter(PluginContainer container) {
-        checkState(values.get() == null, "A scoping block is already in progress");
-        values.set(Maps.<Key<?>, Object>newHashMap());
-        seed(PluginContainer.class, container);
+        checkNotNull(container, "container");
+
+        Frames threadFrames = frames.get();
+        Frame frame = threadFrames.top == null ? threadFrames.root : threadFrames.top.next();
+        frame.container = container;
+        threadFrames.top = frame;
     }
 
     public void exit() {
-        checkState(values.get() != null, "No scoping block in progress");
-        values.remove();
+        Frames threadFrames = frames.get();
+        Frame frame = threadFrames.top;
+        checkState(frame != null, "No scoping block in progress");
+
+        frame.container = null;
+        if (frame.values != null) {
+            frame.values.clear();
+        }
+        threadFrames.top = frame.parent;
+    }
+
+    /**
+     * Gets the plugin whose scope is active on this thread.
+     *
+     * @return The plugin, or null if no scoping block is in progress
+     */
+    public PluginContainer getCurrentContainer() {
+        Frame frame = frames.get().top;
+        return frame == null ? null : frame.container;
     }
 
     public <T> void seed(Key<T> key, T value) {
-        Map<Key<?>, Object> scopedObjects = getScopedObjectMap(key);
-        checkState(!scopedObjects.containsKey(key), "A value for the key %s was already seeded in this scope. Old value: %s New value: %s", key,
-                   scopedObjects.get(key), value);
+        Map<Key<?>, Object> scopedObjects = getFrame(key).values();
+        checkState(!CONTAINER_KEY.equals(key) && !scopedObjects.containsKey(key),
+                   "A value for the key %s was already seeded in this scope. Old value: %s New value: %s", key, scopedObjects.get(key), value);
         scopedObjects.put(key, value);
     }
 
@@ -62,14 +97,24 @@ public class PluginScope implements Scope {
 
     @SuppressWarnings("unchecked")
     public <T> T getInstance(Key<T> key) {
-        Map<Key<?>, Object> scopedObjects = getScopedObjectMap(key);
-        return (T) scopedObjects.get(key);
+        Frame frame = getFrame(key);
+        if (CONTAINER_KEY.equals(key)) {
+            return (T) frame.container;
+        }
+        return frame.values == null ? null : (T) frame.values.get(key);
     }
 
     public <T> Provider<T> scope(final Key<T> key, final Provider<T> unscoped) {
         return new Provider<T>() {
             public T get() {
-                Map<Key<?>, Object> scopedObjects = getScopedObjectMap(key);
+                Frame frame = getFrame(key);
+                if (CONTAINER_KEY.equals(key)) {
+                    @SuppressWarnings("unchecked")
+                    T container = (T) frame.container;
+                    return container;
+                }
+
+                Map<Key<?>, Object> scopedObjects = frame.values();
 
                 @SuppressWarnings("unchecked")
                 T current = (T) scopedObjects.get(key);
@@ -85,12 +130,43 @@ public class PluginScope implements Scope {
         };
     }
 
-    private <T> Map<Key<?>, Object> getScopedObjectMap(Key<T> key) {
-        Map<Key<?>, Object> scopedObjects = values.get();
-        if (scopedObjects == null) {
+    private <T> Frame getFrame(Key<T> key) {
+        Frame frame = frames.get().top;
+        if (frame == null) {
             throw new OutOfScopeException("Cannot access " + key + " outside of a scoping block");
         }
-        return scopedObjects;
+        return frame;
     }
 
-}
\ No newline at end of file
+    private static class Frames {
+
+        private final Frame root = new Frame(null);
+        private Frame top;
+    }
+
+    private static class Frame {
+
+        private final Frame parent;
+        private Frame child;
+        private PluginContainer container;
+        private Map<Key<?>, Object> values;
+
+        private Frame(Frame parent) {
+            this.parent = parent;
+        }
+
+        private Frame next() {
+            if (child == null) {
+                child = new Frame(this);
+            }
+            return child;
+        }
+
+        private Map<Key<?>, Object> values() {
+            if (values == null) {
+                values = Maps.newHashMap();
+            }
+            return values;
+        }
+    }
+}
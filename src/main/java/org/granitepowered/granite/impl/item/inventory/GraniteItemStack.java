@@ -28,10 +28,10 @@ import static org.granitepowered.granite.util.MinecraftUtils.wrap;
 
 import org.apache.commons.lang3.NotImplementedException;
 import org.granitepowered.granite.composite.Composite;
-import org.granitepowered.granite.mappings.Mappings;
 import org.granitepowered.granite.mc.MCBlock;
 import org.granitepowered.granite.mc.MCItem;
 import org.granitepowered.granite.mc.MCItemStack;
+import org.granitepowered.granite.util.Instantiator;
 import org.spongepowered.api.block.BlockType;
 import org.spongepowered.api.item.Enchantment;
 import org.spongepowered.api.item.ItemType;
@@ -68,7 +68,7 @@ public class GraniteItemStack extends Composite<MCItemStack> implements ItemStac
     }
 
     public GraniteItemStack(MCItem item, int amount, int damage) {
-        super(Mappings.getClass("ItemStack"), new Class[]{Mappings.getClass("Item"), int.class, int.class}, item, amount, damage);
+        super(Instantiator.get().newItemStack(item, amount, damage));
     }
 
     public GraniteItemStack(MCBlock block, int amount) {
@@ -76,7 +76,7 @@ public class GraniteItemStack extends Composite<MCItemStack> implements ItemStac
     }
 
     public GraniteItemStack(MCBlock block, int amount, int damage) {
-        super(Mappings.getClass("ItemStack"), new Class[]{Mappings.getClass("Block"), int.class, int.class}, block, amount, damage);
+        super(Instantiator.get().newItemStack(block, amount, damage));
     }
 
     @Override
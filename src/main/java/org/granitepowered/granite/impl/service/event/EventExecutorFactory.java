@@ -0,0 +1,94 @@
+/*
+ * License (MIT)
+ *
+ * Copyright (c) 2014-2015 Granite Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the
+ * Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.granitepowered.granite.impl.service.event;
+
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import javassist.NotFoundException;
+import org.granitepowered.granite.Granite;
+import org.spongepowered.api.util.event.Event;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EventExecutorFactory {
+
+    private static final AtomicInteger executorId = new AtomicInteger();
+
+    /**
+     * Creates an executor for a handler method.
+     *
+     * @param method   The handler method
+     * @param generate Whether to generate a class that calls the method directly, instead of going through a
+     *                 {@link java.lang.invoke.MethodHandle}. Methods the generated class can't access always use a MethodHandle.
+     * @return The executor
+     */
+    public static EventExecutor create(Method method, boolean generate) {
+        if (generate && canGenerate(method)) {
+            try {
+                return generate(method, Granite.getInstance().getClassPool());
+            } catch (CannotCompileException | NotFoundException | ReflectiveOperationException | RuntimeException | LinkageError e) {
+                Granite.getInstance().getLogger().warn("Could not generate event executor for " + method + ", falling back to MethodHandle", e);
+            }
+        }
+        return new MethodHandleEventExecutor(method);
+    }
+
+    private static boolean canGenerate(Method method) {
+        int modifiers = method.getModifiers();
+        return Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers) && Modifier.isPublic(method.getParameterTypes()[0].getModifiers())
+               && method.getDeclaringClass().getClassLoader() != null;
+    }
+
+    /**
+     * Generates an executor in the listener's package and class loader, so it can cast to the listener class and call the
+     * method with a plain <code>invokevirtual</code>.
+     */
+    static EventExecutor generate(Method method, ClassPool parent) throws CannotCompileException, NotFoundException, ReflectiveOperationException {
+        Class<?> listenerClass = method.getDeclaringClass();
+        Class<?> eventClass = method.getParameterTypes()[0];
+
+        ClassPool pool = new ClassPool(parent);
+        pool.appendClassPath(new LoaderClassPath(listenerClass.getClassLoader()));
+
+        CtClass executor = pool.makeClass(listenerClass.getName() + "$GraniteExecutor$" + executorId.incrementAndGet());
+        executor.addInterface(pool.get(EventExecutor.class.getName()));
+        executor.addConstructor(CtNewConstructor.defaultConstructor(executor));
+
+        String body = "public void execute(Object listener, " + Event.class.getName() + " event) {";
+        body += "((" + listenerClass.getName() + ") $1)." + method.getName() + "((" + eventClass.getName() + ") $2);";
+        body += "}";
+        executor.addMethod(CtNewMethod.make(body, executor));
+
+        Class<?> executorClass = executor.toClass(listenerClass.getClassLoader(), listenerClass.getProtectionDomain());
+        executor.detach();
+
+        return (EventExecutor) executorClass.newInstance();
+    }
+}
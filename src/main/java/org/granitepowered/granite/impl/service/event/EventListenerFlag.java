@@ -0,0 +1,58 @@
+/*
+ * License (MIT)
+ *
+ * Copyright (c) 2014-2015 Granite Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the
+ * Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.granitepowered.granite.impl.service.event;
+
+import org.spongepowered.api.util.event.Event;
+
+import java.util.Collection;
+
+/**
+ * Tells woven code whether anything is listening to a set of events, so hooks can skip building events nobody sees.
+ * Kept up to date by {@link GraniteEventManager} whenever handlers are registered or unregistered.
+ */
+public class EventListenerFlag {
+
+    private final Class<? extends Event>[] eventTypes;
+    private volatile boolean hasListeners;
+
+    EventListenerFlag(Class<? extends Event>[] eventTypes) {
+        this.eventTypes = eventTypes;
+    }
+
+    public boolean hasListeners() {
+        return hasListeners;
+    }
+
+    void update(Collection<Class<? extends Event>> handlerTypes) {
+        for (Class<? extends Event> eventType : eventTypes) {
+            for (Class<? extends Event> handlerType : handlerTypes) {
+                if (handlerType.isAssignableFrom(eventType)) {
+                    hasListeners = true;
+                    return;
+                }
+            }
+        }
+        hasListeners = false;
+    }
+}
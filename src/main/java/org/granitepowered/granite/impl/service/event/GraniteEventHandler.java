@@ -27,8 +27,6 @@ import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.util.event.Event;
 import org.spongepowered.api.util.event.Order;
 
-import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 
 public class GraniteEventHandler {
@@ -39,21 +37,17 @@ public class GraniteEventHandler {
     private Order order;
     private boolean ignoreCancelled;
     private Method method;
-    private MethodHandle methodHandle;
+    private EventExecutor executor;
 
     public GraniteEventHandler(Object instance, Class<? extends Event> eventType, PluginContainer pluginContainer, Order order,
-                               boolean ignoreCancelled, Method method) {
+                               boolean ignoreCancelled, Method method, EventExecutor executor) {
         this.instance = instance;
         this.eventType = eventType;
         this.pluginContainer = pluginContainer;
         this.order = order;
         this.ignoreCancelled = ignoreCancelled;
         this.method = method;
-        try {
-            this.methodHandle = MethodHandles.lookup().unreflect(method);
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
-        }
+        this.executor = executor;
     }
 
     public Object getInstance() {
@@ -100,8 +94,8 @@ public class GraniteEventHandler {
         return method;
     }
 
-    public MethodHandle getMethodHandle() {
-        return methodHandle;
+    public EventExecutor getExecutor() {
+        return executor;
     }
 
     public void setMethod(Method method) {
@@ -26,7 +26,6 @@ package org.granitepowered.granite.impl.service.event;
 import com.google.common.base.Supplier;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.MultimapBuilder;
-import org.apache.commons.lang3.NotImplementedException;
 import org.granitepowered.granite.Granite;
 import org.granitepowered.granite.impl.event.GraniteEvent;
 import org.granitepowered.granite.impl.guice.PluginScope;
@@ -37,9 +36,14 @@ import org.spongepowered.api.util.event.Order;
 import org.spongepowered.api.util.event.Subscribe;
 
 import java.lang.reflect.Method;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.inject.Inject;
 
@@ -47,6 +51,10 @@ public class GraniteEventManager implements EventManager {
 
     Multimap<Class<? extends Event>, GraniteEventHandler> handlers = MultimapBuilder.SetMultimapBuilder.hashKeys().hashSetValues().build();
 
+    Map<Class<? extends Event>, GraniteEventHandler[]> handlerCache = new ConcurrentHashMap<>();
+
+    List<EventListenerFlag> listenerFlags = new CopyOnWriteArrayList<>();
+
     private PluginScope pluginScope;
 
     @Inject
@@ -55,7 +63,7 @@ public class GraniteEventManager implements EventManager {
     }
 
     @Override
-    public void register(Object plugin, Object obj) {
+    public synchronized void register(Object plugin, Object obj) {
         PluginContainer container = Granite.getInstance().getPluginManager().fromInstance(plugin).or(new Supplier<PluginContainer>() {
             @Override
             public PluginContainer get() {
@@ -64,6 +72,7 @@ public class GraniteEventManager implements EventManager {
         });
 
         Class<?> objClass = obj.getClass();
+        boolean generateExecutors = Granite.getInstance().getServerConfig().getGeneratedEventExecutors();
 
         for (Method m : objClass.getDeclaredMethods()) {
             if (m.isAnnotationPresent(Subscribe.class)) {
@@ -78,71 +87,134 @@ public class GraniteEventManager implements EventManager {
                     type = (Class<? extends Event>) type.getInterfaces()[0];
                 }
 
-                GraniteEventHandler handler = new GraniteEventHandler(obj, type, container, annotation.order(), annotation.ignoreCancelled(), m);
+                EventExecutor executor = EventExecutorFactory.create(m, generateExecutors);
+                GraniteEventHandler handler =
+                        new GraniteEventHandler(obj, type, container, annotation.order(), annotation.ignoreCancelled(), m, executor);
                 handlers.put(type, handler);
             }
         }
+
+        handlersChanged();
     }
 
     @Override
-    public void unregister(Object obj) {
-        throw new NotImplementedException("");
+    public synchronized void unregister(Object obj) {
+        Iterator<GraniteEventHandler> iterator = handlers.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getInstance() == obj) {
+                iterator.remove();
+            }
+        }
+
+        handlersChanged();
+    }
+
+    /**
+     * Gets a flag that is set whenever at least one handler would receive any of the given events.
+     *
+     * @param eventTypes The event classes that will be posted
+     * @return The flag, which stays up to date as handlers are registered and unregistered
+     */
+    public synchronized EventListenerFlag getListenerFlag(Class<? extends Event>[] eventTypes) {
+        EventListenerFlag flag = new EventListenerFlag(eventTypes);
+        flag.update(handlers.keySet());
+        listenerFlags.add(flag);
+        return flag;
+    }
+
+    private void handlersChanged() {
+        handlerCache.clear();
+
+        for (EventListenerFlag flag : listenerFlags) {
+            flag.update(handlers.keySet());
+        }
     }
 
     @Override
     public boolean post(Event event) {
         GraniteEvent graniteEvent = (GraniteEvent) event;
 
-        Set<GraniteEventHandler> unfilteredHandlers = new HashSet<>();
+        for (GraniteEventHandler handler : getHandlers(event.getClass())) {
+            Order order = handler.getOrder();
+            graniteEvent.isCancellable = isCancellable(order);
+            graniteEvent.isModifiable = isModifiable(order);
 
-        for (Map.Entry<Class<? extends Event>, GraniteEventHandler> entry : handlers.entries()) {
-            if (entry.getKey().isAssignableFrom(event.getClass())) {
-                unfilteredHandlers.add(entry.getValue());
+            if (!graniteEvent.cancelled || !handler.isIgnoreCancelled()) {
+                try {
+                    pluginScope.enter(handler.getPluginContainer());
+
+                    try {
+                        handler.getExecutor().execute(handler.getInstance(), event);
+                    } catch (Throwable throwable) {
+                        Granite.error(throwable);
+                    }
+                } finally {
+                    pluginScope.exit();
+                }
             }
         }
 
         graniteEvent.isModifiable = false;
         graniteEvent.isCancellable = false;
-        postEventWithOrder(unfilteredHandlers, graniteEvent, Order.PRE);
-        postEventWithOrder(unfilteredHandlers, graniteEvent, Order.AFTER_PRE);
 
-        graniteEvent.isCancellable = true;
-        postEventWithOrder(unfilteredHandlers, graniteEvent, Order.FIRST);
+        return graniteEvent.cancelled;
+    }
 
-        graniteEvent.isModifiable = true;
-        postEventWithOrder(unfilteredHandlers, graniteEvent, Order.EARLY);
-        postEventWithOrder(unfilteredHandlers, graniteEvent, Order.DEFAULT);
-        postEventWithOrder(unfilteredHandlers, graniteEvent, Order.LATE);
+    /**
+     * Gets every handler that should receive an event of the given class, sorted by {@link Order}.
+     * The result is cached until the next call to {@link #register(Object, Object)} or {@link #unregister(Object)}.
+     *
+     * @param eventClass The concrete class of the event being posted
+     * @return The handlers, which must not be modified
+     */
+    GraniteEventHandler[] getHandlers(Class<? extends Event> eventClass) {
+        GraniteEventHandler[] cached = handlerCache.get(eventClass);
+        if (cached != null) {
+            return cached;
+        }
 
-        graniteEvent.isModifiable = false;
-        postEventWithOrder(unfilteredHandlers, graniteEvent, Order.LAST);
+        synchronized (this) {
+            List<GraniteEventHandler> matching = new ArrayList<>();
+            for (Map.Entry<Class<? extends Event>, GraniteEventHandler> entry : handlers.entries()) {
+                if (entry.getKey().isAssignableFrom(eventClass)) {
+                    matching.add(entry.getValue());
+                }
+            }
 
-        graniteEvent.isCancellable = false;
-        postEventWithOrder(unfilteredHandlers, graniteEvent, Order.BEFORE_POST);
-        postEventWithOrder(unfilteredHandlers, graniteEvent, Order.POST);
+            GraniteEventHandler[] sorted = matching.toArray(new GraniteEventHandler[matching.size()]);
+            Arrays.sort(sorted, new Comparator<GraniteEventHandler>() {
+                @Override
+                public int compare(GraniteEventHandler o1, GraniteEventHandler o2) {
+                    return o1.getOrder().compareTo(o2.getOrder());
+                }
+            });
 
-        return graniteEvent.cancelled;
+            handlerCache.put(eventClass, sorted);
+            return sorted;
+        }
     }
 
-    public boolean postEventWithOrder(Set<GraniteEventHandler> unfilteredHandlers, Event event, Order order) {
-        for (GraniteEventHandler handler : unfilteredHandlers) {
-            try {
-                pluginScope.enter(handler.getPluginContainer());
-
-                if (handler.getOrder() == order) {
-                    if (!((GraniteEvent) event).cancelled || !handler.isIgnoreCancelled()) {
-                        try {
-                            handler.getMethodHandle().invoke(handler.getInstance(), event);
-                        } catch (Throwable throwable) {
-                            Granite.error(throwable);
-                        }
-                    }
-                }
-            } finally {
-                pluginScope.exit();
-            }
+    private static boolean isCancellable(Order order) {
+        switch (order) {
+            case FIRST:
+            case EARLY:
+            case DEFAULT:
+            case LATE:
+            case LAST:
+                return true;
+            default:
+                return false;
         }
+    }
 
-        return ((GraniteEvent) event).cancelled;
+    private static boolean isModifiable(Order order) {
+        switch (order) {
+            case EARLY:
+            case DEFAULT:
+            case LATE:
+                return true;
+            default:
+                return false;
+        }
     }
 }
@@ -0,0 +1,222 @@
+/*
+ * License (MIT)
+ *
+ * Copyright (c) 2014-2015 Granite Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the
+ * Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.granitepowered.granite.impl.service.scheduler;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.granitepowered.granite.Granite;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.service.scheduler.AsynchronousScheduler;
+import org.spongepowered.api.service.scheduler.Task;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs plugin tasks off the server thread. Delays and intervals are kept by a single timer thread, which hands due tasks
+ * to a fixed-size worker pool with a bounded queue. When the queue is full, the run is skipped and a warning is logged,
+ * so a misbehaving plugin can't pile up unbounded work.
+ */
+public class GraniteAsyncScheduler implements AsynchronousScheduler, TaskCanceller {
+
+    private final Map<UUID, GraniteTask> tasks = new ConcurrentHashMap<>();
+    private final Multiset<String> pluginTaskCounts = ConcurrentHashMultiset.create();
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final ThreadPoolExecutor workers;
+
+    public GraniteAsyncScheduler(int threads, int queueSize) {
+        timer = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat("Granite Async Timer").setDaemon(true).build());
+        timer.setRemoveOnCancelPolicy(true);
+
+        workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(queueSize),
+                                         new ThreadFactoryBuilder().setNameFormat("Granite Async Task #%d").setDaemon(true).build());
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public Optional<Task> runTask(Object plugin, Runnable task) {
+        return runTaskAfter(plugin, task, TimeUnit.MILLISECONDS, 0);
+    }
+
+    @Override
+    public Optional<Task> runTaskAfter(Object plugin, Runnable task, TimeUnit scale, long delay) {
+        return schedule(plugin, task, scale, Optional.<Long>absent(), delay);
+    }
+
+    @Override
+    public Optional<Task> runRepeatingTask(Object plugin, Runnable task, TimeUnit scale, long interval) {
+        return runRepeatingTaskAfter(plugin, task, scale, interval, 0);
+    }
+
+    @Override
+    public Optional<Task> runRepeatingTaskAfter(Object plugin, Runnable task, TimeUnit scale, long interval, long delay) {
+        return schedule(plugin, task, scale, Optional.of(interval), delay);
+    }
+
+    private Optional<Task> schedule(Object plugin, Runnable runnable, TimeUnit scale, Optional<Long> interval, long delay) {
+        Optional<PluginContainer> container = Granite.getInstance().getPluginManager().fromInstance(plugin);
+        if (!container.isPresent()) {
+            return Optional.absent();
+        }
+
+        // Delays and intervals are reported in milliseconds, like the scale the API defaults to
+        Optional<Long> intervalMillis = interval.isPresent() ? Optional.of(scale.toMillis(interval.get())) : Optional.<Long>absent();
+        GraniteTask task = new GraniteTask(this, container.get(), Optional.of(scale.toMillis(delay)), intervalMillis,
+                                           System.currentTimeMillis(), runnable, false);
+
+        tasks.put(task.getUniqueId(), task);
+        pluginTaskCounts.add(task.getOwner().getId());
+
+        Dispatch dispatch = new Dispatch(task);
+        if (interval.isPresent()) {
+            task.future = timer.scheduleAtFixedRate(dispatch, Math.max(delay, 0), Math.max(interval.get(), 1), scale);
+        } else if (delay > 0) {
+            task.future = timer.schedule(dispatch, delay, scale);
+        } else {
+            dispatch.run();
+        }
+
+        return Optional.<Task>of(task);
+    }
+
+    @Override
+    public void cancel(GraniteTask task) {
+        if (task.future != null) {
+            task.future.cancel(false);
+        }
+        forget(task);
+    }
+
+    private void forget(GraniteTask task) {
+        if (tasks.remove(task.getUniqueId()) != null) {
+            pluginTaskCounts.remove(task.getOwner().getId());
+        }
+    }
+
+    /**
+     * Gets how many tasks a plugin has scheduled on this scheduler that haven't finished or been cancelled yet.
+     *
+     * @param plugin The plugin instance
+     * @return The number of tasks
+     */
+    public int getTaskCount(Object plugin) {
+        Optional<PluginContainer> container = Granite.getInstance().getPluginManager().fromInstance(plugin);
+        return container.isPresent() ? pluginTaskCounts.count(container.get().getId()) : 0;
+    }
+
+    /**
+     * Stops all tasks. Tasks already running are allowed to finish.
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdown();
+    }
+
+    @Override
+    public Optional<Task> getTaskById(UUID id) {
+        return Optional.<Task>fromNullable(tasks.get(id));
+    }
+
+    @Override
+    public Collection<Task> getScheduledTasks() {
+        return Collections.<Task>unmodifiableCollection(tasks.values());
+    }
+
+    @Override
+    public Collection<Task> getScheduledTasks(final Object plugin) {
+        return Collections2.filter(getScheduledTasks(), new Predicate<Task>() {
+            @Override
+            public boolean apply(Task task) {
+                return plugin == task.getOwner().getInstance();
+            }
+        });
+    }
+
+    /**
+     * Hands a due task to the worker pool. A repeating task that is still queued or running is not queued again.
+     */
+    private class Dispatch implements Runnable {
+
+        private final GraniteTask task;
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        private Dispatch(GraniteTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (task.isCancelled() || !queued.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                workers.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        execute();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                queued.set(false);
+                Granite.getInstance().getLogger().warn("Async task queue is full, skipping a run of task " + task.getUniqueId() + " from "
+                                                       + task.getOwner().getId());
+
+                if (!task.getInterval().isPresent()) {
+                    forget(task);
+                }
+            }
+        }
+
+        private void execute() {
+            try {
+                if (!task.isCancelled()) {
+                    task.getWrapperRunnable().run();
+                }
+            } catch (Throwable t) {
+                Granite.error("Error while running async task " + task.getUniqueId() + " from " + task.getOwner().getId(), t);
+            } finally {
+                queued.set(false);
+
+                if (!task.getInterval().isPresent()) {
+                    forget(task);
+                }
+            }
+        }
+    }
+}
@@ -25,67 +25,241 @@ package org.granitepowered.granite.impl.service.scheduler;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
-import com.google.common.collect.Sets;
+import com.google.common.collect.Collections2;
 import org.granitepowered.granite.Granite;
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.service.scheduler.Scheduler;
+import org.spongepowered.api.service.scheduler.SynchronousScheduler;
 import org.spongepowered.api.service.scheduler.Task;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
-public class GraniteScheduler implements Scheduler {
+public class GraniteScheduler implements Scheduler, SynchronousScheduler, TaskCanceller, Executor {
 
-    private Set<Task> tasks;
-    private long tickCount;
+    private final Map<UUID, GraniteTask> tasks;
+    private final TaskWheel wheel;
+
+    /**
+     * Due tasks that didn't fit in their tick's budget. Only touched by the server thread.
+     */
+    private final ArrayDeque<GraniteTask> overrun;
+    private long taskBudget;
+
+    /**
+     * How many staggered repeating tasks are live per interval, used to spread tasks with the same interval over different ticks.
+     */
+    private final Map<Long, Long> intervalCounts;
+
+    /**
+     * Work handed to the server thread by other threads, run on the next tick. Producers never block.
+     */
+    private final ConcurrentLinkedQueue<Runnable> handoff;
+    private long handoffBudget;
 
     public GraniteScheduler() {
-        tasks = new HashSet<>();
+        tasks = new ConcurrentHashMap<>();
+        wheel = new TaskWheel();
+        handoff = new ConcurrentLinkedQueue<>();
+        handoffBudget = TimeUnit.MILLISECONDS.toNanos(10);
+        overrun = new ArrayDeque<>();
+        intervalCounts = new HashMap<>();
+    }
+
+    /**
+     * Sets how long a tick may spend running scheduled tasks. Due tasks that don't fit are carried over to the next tick,
+     * ahead of that tick's own tasks. At least one task runs every tick, so nothing starves.
+     *
+     * @param millis The budget in milliseconds, or 0 for no limit
+     */
+    public void setTaskBudget(long millis) {
+        taskBudget = TimeUnit.MILLISECONDS.toNanos(millis);
     }
 
+    /**
+     * Sets how long a tick may spend on work handed over from other threads. Whatever doesn't fit waits for the next tick.
+     *
+     * @param millis The budget in milliseconds
+     */
+    public void setHandoffBudget(long millis) {
+        handoffBudget = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Runs the tasks due on this tick, then as much handed over work as fits in the budget. Called from the server tick.
+     */
     public void tick() {
-        for (Task t : tasks) {
-            GraniteTask gt = (GraniteTask) t;
-            if (gt.isCancelled()) {
-                tasks.remove(t);
+        GraniteTask task;
+        synchronized (this) {
+            task = wheel.advance();
+        }
+
+        if (taskBudget <= 0 && overrun.isEmpty()) {
+            while (task != null) {
+                GraniteTask next = task.next;
+                task.next = null;
+
+                run(task);
+                task = next;
             }
+        } else {
+            while (task != null) {
+                GraniteTask next = task.next;
+                task.next = null;
 
-            long delta = tickCount - gt.getTimeCreated();
+                overrun.add(task);
+                task = next;
+            }
 
-            if (gt.getInterval().isPresent()) {
-                if (delta % gt.getInterval().or(1L) == 0) {
-                    gt.getWrapperRunnable().run();
-                }
-            } else {
-                if (gt.hasRan()) {
-                    tasks.remove(t);
-                } else if (delta >= gt.getDelay().or(0L)) {
-                    gt.getWrapperRunnable().run();
-                }
+            runWithinBudget();
+        }
+
+        drainHandoff();
+    }
+
+    private void runWithinBudget() {
+        long deadline = System.nanoTime() + taskBudget;
+
+        GraniteTask task;
+        while ((task = overrun.poll()) != null) {
+            run(task);
+
+            if (taskBudget > 0 && System.nanoTime() - deadline >= 0) {
+                break;
             }
         }
+    }
 
-        tickCount++;
+    private void drainHandoff() {
+        long deadline = System.nanoTime() + handoffBudget;
+
+        Runnable runnable;
+        while ((runnable = handoff.poll()) != null) {
+            try {
+                runnable.run();
+            } catch (Throwable t) {
+                Granite.error("Error while running work handed to the server thread", t);
+            }
+
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
     }
 
+    /**
+     * Runs something on the server thread during the next tick. Safe to call from any thread, e.g. Netty or async tasks.
+     *
+     * @param command The work to run
+     */
     @Override
-    public Optional<Task> runTask(Object plugin, Runnable task) {
-        return runTaskAfter(plugin, task, 0);
+    public void execute(Runnable command) {
+        handoff.add(command);
+    }
+
+    private void run(GraniteTask task) {
+        if (task.isCancelled()) {
+            return;
+        }
+
+        try {
+            task.getWrapperRunnable().run();
+        } catch (Throwable t) {
+            Granite.error("Error while running task " + task.getUniqueId() + " from " + task.getOwner().getId(), t);
+        }
+
+        if (task.getInterval().isPresent() && !task.isCancelled()) {
+            synchronized (this) {
+                task.dueTick = wheel.getCurrentTick() - 1 + Math.max(task.getInterval().get(), 1L);
+                wheel.add(task);
+            }
+        } else {
+            tasks.remove(task.getUniqueId());
+        }
     }
 
     @Override
-    public Optional<Task> runTaskAfter(Object plugin, Runnable task, long delay) {
+    public synchronized void cancel(GraniteTask task) {
+        wheel.remove(task);
+        tasks.remove(task.getUniqueId());
+
+        if (task.staggered) {
+            task.staggered = false;
+
+            long interval = task.getInterval().get();
+            long count = intervalCounts.get(interval) - 1;
+            if (count == 0) {
+                intervalCounts.remove(interval);
+            } else {
+                intervalCounts.put(interval, count);
+            }
+        }
+    }
+
+    private Optional<Task> schedule(Object plugin, Runnable runnable, Optional<Long> interval, long delay) {
         Optional<PluginContainer> container = Granite.getInstance().getPluginManager().fromInstance(plugin);
 
         if (container.isPresent()) {
-            return Optional.<Task>of(new GraniteTask(container.get(), Optional.of(delay), Optional.<Long>absent(), tickCount, task));
+            if (!interval.isPresent() && delay <= 0) {
+                // Nothing to wait for, so skip the wheel and its lock
+                final GraniteTask task = new GraniteTask(this, container.get(), Optional.of(delay), interval, wheel.getCurrentTick(), runnable, true);
+                tasks.put(task.getUniqueId(), task);
+
+                execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        GraniteScheduler.this.run(task);
+                    }
+                });
+
+                return Optional.<Task>of(task);
+            }
+
+            synchronized (this) {
+                long now = wheel.getCurrentTick();
+                GraniteTask task = new GraniteTask(this, container.get(), Optional.of(delay), interval, now, runnable, true);
+                task.dueTick = now + Math.max(delay, 0L);
+
+                if (interval.isPresent() && interval.get() > 1 && delay <= 0) {
+                    // Give each task with the same interval the next phase in turn, so they don't all run on the same tick. Tasks given
+                    // a delay must first run exactly then, so only those without one are moved.
+                    task.staggered = true;
+
+                    Long count = intervalCounts.get(interval.get());
+                    count = count == null ? 0 : count;
+                    intervalCounts.put(interval.get(), count + 1);
+
+                    task.dueTick += count % interval.get();
+                }
+
+                tasks.put(task.getUniqueId(), task);
+                wheel.add(task);
+
+                return Optional.<Task>of(task);
+            }
         } else {
             return Optional.absent();
         }
     }
 
+    @Override
+    public Optional<Task> runTask(Object plugin, Runnable task) {
+        return runTaskAfter(plugin, task, 0);
+    }
+
+    @Override
+    public Optional<Task> runTaskAfter(Object plugin, Runnable task, long delay) {
+        return schedule(plugin, task, Optional.<Long>absent(), delay);
+    }
+
     @Override
     public Optional<Task> runRepeatingTask(Object plugin, Runnable task, long interval) {
         return runRepeatingTaskAfter(plugin, task, interval, 0);
@@ -93,34 +267,22 @@ public class GraniteScheduler implements Scheduler {
 
     @Override
     public Optional<Task> runRepeatingTaskAfter(Object plugin, Runnable task, long interval, long delay) {
-        Optional<PluginContainer> container = Granite.getInstance().getPluginManager().fromInstance(plugin);
-
-        if (container.isPresent()) {
-            return Optional.<Task>of(
-                    new GraniteTask(container.get(), Optional.of(delay), Optional.fromNullable(tickCount == 0 ? null : tickCount), interval, task));
-        } else {
-            return Optional.absent();
-        }
+        return schedule(plugin, task, Optional.of(interval), delay);
     }
 
     @Override
     public Optional<Task> getTaskById(UUID id) {
-        for (Task t : tasks) {
-            if (t.getUniqueId().equals(id)) {
-                return Optional.of(t);
-            }
-        }
-        return Optional.absent();
+        return Optional.<Task>fromNullable(tasks.get(id));
     }
 
     @Override
     public Collection<Task> getScheduledTasks() {
-        return tasks;
+        return Collections.<Task>unmodifiableCollection(tasks.values());
     }
 
     @Override
     public Collection<Task> getScheduledTasks(final Object plugin) {
-        return Sets.filter(tasks, new Predicate<Task>() {
+        return Collections2.filter(getScheduledTasks(), new Predicate<Task>() {
             @Override
             public boolean apply(Task task) {
                 return plugin == task.getOwner().getInstance();
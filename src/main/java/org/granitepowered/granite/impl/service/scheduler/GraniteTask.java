@@ -24,30 +24,49 @@
 package org.granitepowered.granite.impl.service.scheduler;
 
 import com.google.common.base.Optional;
-import org.apache.commons.lang3.NotImplementedException;
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.service.scheduler.Task;
 
 import java.util.UUID;
+import java.util.concurrent.Future;
 
 public class GraniteTask implements Task {
 
+    private final TaskCanceller scheduler;
     private final PluginContainer owner;
     private final Optional<Long> delay;
     private final Optional<Long> interval;
     private final long timeCreated;
-    boolean cancelled;
-    private boolean hasRan;
+    volatile boolean cancelled;
+    private volatile boolean hasRan;
     private final UUID uuid;
     private final Runnable runnable;
     private final Runnable wrapperRunnable;
-
-    public GraniteTask(PluginContainer owner, Optional<Long> delay, Optional<Long> interval, long timeCreated, final Runnable runnable) {
+    private final boolean synchronous;
+    private volatile String name;
+
+    private volatile long runCount;
+    private volatile long totalRunTime;
+    private volatile long maxRunTime;
+    private volatile long lastRunTime;
+
+    // Scheduling state, owned by the scheduler
+    volatile Future<?> future;
+    long dueTick;
+    boolean staggered;
+    TaskWheel.Bucket bucket;
+    GraniteTask prev;
+    GraniteTask next;
+
+    public GraniteTask(TaskCanceller scheduler, PluginContainer owner, Optional<Long> delay, Optional<Long> interval, long timeCreated,
+                       final Runnable runnable, boolean synchronous) {
+        this.scheduler = scheduler;
         this.owner = owner;
         this.delay = delay;
         this.interval = interval;
         this.timeCreated = timeCreated;
         this.runnable = runnable;
+        this.synchronous = synchronous;
         cancelled = false;
         hasRan = false;
         uuid = UUID.randomUUID();
@@ -55,14 +74,20 @@ public class GraniteTask implements Task {
             @Override
             public void run() {
                 setHasRan();
-                runnable.run();
+
+                long start = System.nanoTime();
+                try {
+                    runnable.run();
+                } finally {
+                    recordRun(System.nanoTime() - start);
+                }
             }
         };
     }
 
     @Override
     public Optional<String> getName() {
-        return null;
+        return Optional.fromNullable(name);
     }
 
     @Override
@@ -90,11 +115,14 @@ public class GraniteTask implements Task {
 
     @Override
     public boolean cancel() {
-        if (!hasRan) {
-            cancelled = true;
+        // A repeating task can always be stopped, a one-off task only before it ran
+        if (cancelled || (hasRan && !interval.isPresent())) {
+            return false;
         }
 
-        return !hasRan;
+        cancelled = true;
+        scheduler.cancel(this);
+        return true;
     }
 
     @Override
@@ -104,12 +132,14 @@ public class GraniteTask implements Task {
 
     @Override
     public boolean isSynchronous() {
-        throw new NotImplementedException("");
+        return synchronous;
     }
 
     @Override
     public String setName(String s) {
-        throw new NotImplementedException("");
+        String old = name;
+        name = s;
+        return old;
     }
 
     public Runnable getWrapperRunnable() {
@@ -128,4 +158,47 @@ public class GraniteTask implements Task {
     public boolean hasRan() {
         return hasRan;
     }
+
+    // Runs of one task never overlap, so plain volatile writes are enough here
+    private void recordRun(long nanos) {
+        runCount++;
+        totalRunTime += nanos;
+        lastRunTime = nanos;
+        if (nanos > maxRunTime) {
+            maxRunTime = nanos;
+        }
+    }
+
+    public long getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * @return The time spent in all runs of this task so far, in nanoseconds
+     */
+    public long getTotalRunTime() {
+        return totalRunTime;
+    }
+
+    /**
+     * @return The average time a run of this task took, in nanoseconds
+     */
+    public long getAverageRunTime() {
+        long runs = runCount;
+        return runs == 0 ? 0 : totalRunTime / runs;
+    }
+
+    /**
+     * @return The longest time a run of this task took, in nanoseconds
+     */
+    public long getMaxRunTime() {
+        return maxRunTime;
+    }
+
+    /**
+     * @return The time the last run of this task took, in nanoseconds
+     */
+    public long getLastRunTime() {
+        return lastRunTime;
+    }
 }
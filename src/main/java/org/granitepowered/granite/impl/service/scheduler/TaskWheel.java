@@ -0,0 +1,176 @@
+/*
+ * License (MIT)
+ *
+ * Copyright (c) 2014-2015 Granite Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the
+ * Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.granitepowered.granite.impl.service.scheduler;
+
+/**
+ * Hierarchical timing wheel, in the style of the Linux kernel timers. Tasks due within 256 ticks go into the root wheel, one
+ * slot per tick. Tasks further out go into one of four coarser wheels of 64 slots each, and are cascaded down into finer
+ * wheels as their time comes closer. Adding and removing a task is O(1), and a tick only touches the tasks due on it (plus,
+ * every 256 ticks, the one coarse slot that gets cascaded).
+ *
+ * <p>Tasks are intrusive list nodes, see {@link GraniteTask#bucket}. Not thread safe; {@link GraniteScheduler} guards it.</p>
+ */
+class TaskWheel {
+
+    private static final int ROOT_BITS = 8;
+    private static final int LEVEL_BITS = 6;
+    private static final int LEVELS = 4;
+
+    private static final int ROOT_MASK = (1 << ROOT_BITS) - 1;
+    private static final int LEVEL_MASK = (1 << LEVEL_BITS) - 1;
+
+    /**
+     * Tasks further away than this are parked in the last slot of the outermost wheel and re-sorted when it cascades.
+     */
+    private static final long MAX_DELTA = (1L << (ROOT_BITS + LEVELS * LEVEL_BITS)) - 1;
+
+    private final Bucket[] root = newBuckets(1 << ROOT_BITS);
+    private final Bucket[][] levels = new Bucket[LEVELS][];
+
+    /**
+     * The next tick that {@link #advance()} will process.
+     */
+    private long currentTick;
+
+    TaskWheel() {
+        for (int i = 0; i < LEVELS; i++) {
+            levels[i] = newBuckets(1 << LEVEL_BITS);
+        }
+    }
+
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    void add(GraniteTask task) {
+        long due = task.dueTick;
+        long delta = due - currentTick;
+
+        Bucket bucket;
+        if (delta < 0) {
+            bucket = root[(int) (currentTick & ROOT_MASK)];
+        } else if (delta <= ROOT_MASK) {
+            bucket = root[(int) (due & ROOT_MASK)];
+        } else {
+            if (delta > MAX_DELTA) {
+                delta = MAX_DELTA;
+                due = currentTick + MAX_DELTA;
+            }
+
+            int level = 0;
+            while (level < LEVELS - 1 && delta >= 1L << (ROOT_BITS + (level + 1) * LEVEL_BITS)) {
+                level++;
+            }
+
+            bucket = levels[level][(int) ((due >>> (ROOT_BITS + level * LEVEL_BITS)) & LEVEL_MASK)];
+        }
+
+        task.bucket = bucket;
+        task.prev = null;
+        task.next = bucket.head;
+        if (bucket.head != null) {
+            bucket.head.prev = task;
+        }
+        bucket.head = task;
+    }
+
+    void remove(GraniteTask task) {
+        if (task.bucket == null) {
+            return;
+        }
+
+        if (task.prev == null) {
+            task.bucket.head = task.next;
+        } else {
+            task.prev.next = task.next;
+        }
+        if (task.next != null) {
+            task.next.prev = task.prev;
+        }
+
+        task.bucket = null;
+        task.prev = null;
+        task.next = null;
+    }
+
+    /**
+     * Moves the wheel forward by one tick.
+     *
+     * @return The tasks due on the processed tick, linked through {@link GraniteTask#next}, or null if there are none
+     */
+    GraniteTask advance() {
+        int index = (int) (currentTick & ROOT_MASK);
+
+        if (index == 0) {
+            for (int level = 0; level < LEVELS; level++) {
+                int levelIndex = (int) ((currentTick >>> (ROOT_BITS + level * LEVEL_BITS)) & LEVEL_MASK);
+                cascade(levels[level][levelIndex]);
+
+                if (levelIndex != 0) {
+                    break;
+                }
+            }
+        }
+
+        GraniteTask due = root[index].detach();
+        currentTick++;
+        return due;
+    }
+
+    private void cascade(Bucket bucket) {
+        GraniteTask task = bucket.detach();
+        while (task != null) {
+            GraniteTask next = task.next;
+            add(task);
+            task = next;
+        }
+    }
+
+    private static Bucket[] newBuckets(int size) {
+        Bucket[] buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+        return buckets;
+    }
+
+    static class Bucket {
+
+        private GraniteTask head;
+
+        /**
+         * Empties this bucket. The tasks stay linked to each other through {@link GraniteTask#next}.
+         */
+        private GraniteTask detach() {
+            GraniteTask first = head;
+            head = null;
+
+            for (GraniteTask task = first; task != null; task = task.next) {
+                task.bucket = null;
+                task.prev = null;
+            }
+            return first;
+        }
+    }
+}
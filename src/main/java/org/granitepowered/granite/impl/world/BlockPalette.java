@@ -0,0 +1,119 @@
+/*
+ * License (MIT)
+ *
+ * Copyright (c) 2014-2015 Granite Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the
+ * Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.granitepowered.granite.impl.world;
+
+import static org.granitepowered.granite.util.MinecraftUtils.unwrap;
+import static org.granitepowered.granite.util.MinecraftUtils.wrap;
+
+import org.granitepowered.granite.impl.block.GraniteBlockType;
+import org.granitepowered.granite.mc.MCBlockState;
+import org.granitepowered.granite.mc.MCExtendedBlockStorage;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockTypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps block states to small ids for the bulk block methods in {@link GraniteWorld}. A palette can be reused across calls, so that the
+ * ids read from one region can be written to another.
+ */
+public class BlockPalette {
+
+    private final List<MCBlockState> states = new ArrayList<>();
+    private final Map<MCBlockState, Short> ids = new IdentityHashMap<>();
+
+    // Minecraft's own state ids, as stored in the chunk sections, to palette ids plus one. Grown as higher raw ids are seen, up to one
+    // entry per char, since most regions only hold a few kinds of blocks.
+    private short[] rawIds = new short[256];
+
+    /**
+     * Returns the number of states in this palette.
+     */
+    public int size() {
+        return states.size();
+    }
+
+    /**
+     * Returns the state for the given id.
+     *
+     * @param id The palette id
+     * @return The block state
+     */
+    public BlockState getState(int id) {
+        return wrap(states.get(id));
+    }
+
+    /**
+     * Returns the id for the given state, adding it to the palette if needed.
+     *
+     * @param state The block state
+     * @return The palette id
+     */
+    public short getId(BlockState state) {
+        return getId((MCBlockState) unwrap(state));
+    }
+
+    MCBlockState getMCState(int id) {
+        return states.get(id);
+    }
+
+    short getId(MCBlockState state) {
+        Short id = ids.get(state);
+        if (id == null) {
+            if (states.size() > Short.MAX_VALUE) {
+                throw new IllegalStateException("Block palette is full");
+            }
+            id = (short) states.size();
+            states.add(state);
+            ids.put(state, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id for the block at the given section coordinates. The section is only asked for the state the first time a raw id is
+     * seen.
+     */
+    short getId(MCExtendedBlockStorage storage, char[] data, int x, int y, int z) {
+        char raw = data == null ? 0 : data[y << 8 | z << 4 | x];
+
+        short id = raw < rawIds.length ? rawIds[raw] : 0;
+        if (id == 0) {
+            id = (short) (getId(storage == null ? getAir() : storage.get(x, y, z)) + 1);
+            if (raw >= rawIds.length) {
+                rawIds = Arrays.copyOf(rawIds, Integer.highestOneBit(raw) << 1);
+            }
+            rawIds[raw] = id;
+        }
+        return (short) (id - 1);
+    }
+
+    static MCBlockState getAir() {
+        return ((GraniteBlockType) BlockTypes.AIR).obj.fieldGet$defaultBlockState();
+    }
+}
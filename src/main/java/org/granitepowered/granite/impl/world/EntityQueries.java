@@ -0,0 +1,184 @@
+/*
+ * License (MIT)
+ *
+ * Copyright (c) 2014-2015 Granite Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the
+ * Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.granitepowered.granite.impl.world;
+
+import com.flowpowered.math.vector.Vector3d;
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.collect.Collections2;
+import com.google.common.collect.Iterables;
+import org.granitepowered.granite.impl.entity.GraniteEntity;
+import org.granitepowered.granite.mc.MCChunk;
+import org.granitepowered.granite.mc.MCChunkProvider;
+import org.granitepowered.granite.mc.MCEntity;
+import org.granitepowered.granite.mc.MCEntityPlayerMP;
+import org.granitepowered.granite.util.MinecraftUtils;
+import org.spongepowered.api.entity.Entity;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lazy spatial entity queries which only walk the chunk sections overlapping the query.
+ */
+final class EntityQueries {
+
+    /**
+     * How far an entity may have moved out of the section it is filed under, the same slack Minecraft uses for its own lookups.
+     */
+    private static final double MARGIN = 2.0;
+
+    static final Predicate<MCEntity> PLAYERS = new Predicate<MCEntity>() {
+        @Override
+        public boolean apply(MCEntity input) {
+            return input instanceof MCEntityPlayerMP;
+        }
+    };
+
+    private static final MinecraftUtils.WrapFunction<GraniteEntity> WRAP = new MinecraftUtils.WrapFunction<>();
+
+    private static final Function<MCChunk, Iterable<MCEntity>> ALL_SECTIONS = sections(0, 15);
+
+    private EntityQueries() {
+    }
+
+    static Iterable<MCEntity> inBox(MCChunkProvider chunkProvider, Vector3d min, Vector3d max) {
+        int minX = floor(min.getX() - MARGIN) >> 4;
+        int minZ = floor(min.getZ() - MARGIN) >> 4;
+        int maxX = floor(max.getX() + MARGIN) >> 4;
+        int maxZ = floor(max.getZ() + MARGIN) >> 4;
+
+        // Only the chunk lookups happen up front, the entities themselves are walked lazily
+        List<MCChunk> chunks = new ArrayList<>();
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                if (chunkProvider.chunkExists(x, z)) {
+                    chunks.add(chunkProvider.provideChunk(x, z));
+                }
+            }
+        }
+
+        Function<MCChunk, Iterable<MCEntity>> sections = sections(section(min.getY() - MARGIN), section(max.getY() + MARGIN));
+        return Iterables.filter(Iterables.concat(Iterables.transform(chunks, sections)), inBox(min, max));
+    }
+
+    static Iterable<MCEntity> inBox(MCChunk chunk, Vector3d min, Vector3d max) {
+        return Iterables.filter(sections(section(min.getY() - MARGIN), section(max.getY() + MARGIN)).apply(chunk), inBox(min, max));
+    }
+
+    static Iterable<MCEntity> inRadius(MCChunkProvider chunkProvider, Vector3d center, double radius) {
+        return Iterables.filter(inBox(chunkProvider, center.sub(radius, radius, radius), center.add(radius, radius, radius)),
+                inRadius(center, radius));
+    }
+
+    static Collection<MCEntity> all(final MCChunk chunk) {
+        return new AbstractCollection<MCEntity>() {
+            @Override
+            public Iterator<MCEntity> iterator() {
+                return ALL_SECTIONS.apply(chunk).iterator();
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (Set section : chunk.fieldGet$entityLists()) {
+                    size += section.size();
+                }
+                return size;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends Entity> Iterable<T> wrap(Iterable<MCEntity> entities) {
+        return (Iterable<T>) (Iterable<?>) Iterables.transform(entities, WRAP);
+    }
+
+    /**
+     * Returns a read-only view of the given entities, wrapping each one as it is accessed.
+     */
+    static Collection<Entity> view(Collection<MCEntity> entities) {
+        return Collections.<Entity>unmodifiableCollection(Collections2.transform(entities, WRAP));
+    }
+
+    /**
+     * Returns a read-only view of the given entities that match the predicate. Entities are only tested as the view is walked, and nothing
+     * is copied.
+     */
+    static Collection<Entity> view(Collection<MCEntity> entities, Predicate<Entity> predicate) {
+        return view(Collections2.filter(entities, Predicates.compose(predicate, WRAP)));
+    }
+
+    static Predicate<MCEntity> inBox(final Vector3d min, final Vector3d max) {
+        return new Predicate<MCEntity>() {
+            @Override
+            public boolean apply(MCEntity input) {
+                double x = input.fieldGet$posX();
+                double y = input.fieldGet$posY();
+                double z = input.fieldGet$posZ();
+                return x >= min.getX() && x <= max.getX() && y >= min.getY() && y <= max.getY() && z >= min.getZ() && z <= max.getZ();
+            }
+        };
+    }
+
+    static Predicate<MCEntity> inRadius(final Vector3d center, double radius) {
+        final double radiusSquared = radius * radius;
+        return new Predicate<MCEntity>() {
+            @Override
+            public boolean apply(MCEntity input) {
+                double dx = input.fieldGet$posX() - center.getX();
+                double dy = input.fieldGet$posY() - center.getY();
+                double dz = input.fieldGet$posZ() - center.getZ();
+                return dx * dx + dy * dy + dz * dz <= radiusSquared;
+            }
+        };
+    }
+
+    private static Function<MCChunk, Iterable<MCEntity>> sections(final int from, final int to) {
+        return new Function<MCChunk, Iterable<MCEntity>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Iterable<MCEntity> apply(MCChunk input) {
+                List<Set<MCEntity>> entityLists = Arrays.asList((Set<MCEntity>[]) input.fieldGet$entityLists());
+                return Iterables.concat(entityLists.subList(from, to + 1));
+            }
+        };
+    }
+
+    private static int section(double y) {
+        return Math.max(0, Math.min(15, floor(y) >> 4));
+    }
+
+    private static int floor(double value) {
+        int i = (int) value;
+        return value < i ? i - 1 : i;
+    }
+}
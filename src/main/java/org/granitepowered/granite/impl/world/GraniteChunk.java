@@ -29,14 +29,12 @@ import com.flowpowered.math.vector.Vector3d;
 import com.flowpowered.math.vector.Vector3i;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Sets;
+import com.google.common.collect.Iterables;
 import org.apache.commons.lang3.NotImplementedException;
 import org.granitepowered.granite.composite.Composite;
 import org.granitepowered.granite.impl.world.biome.GraniteBiomeType;
 import org.granitepowered.granite.mc.MCChunk;
 import org.granitepowered.granite.mc.MCChunkProvider;
-import org.granitepowered.granite.mc.MCEntity;
 import org.spongepowered.api.block.BlockLoc;
 import org.spongepowered.api.entity.Entity;
 import org.spongepowered.api.entity.EntitySnapshot;
@@ -46,7 +44,6 @@ import org.spongepowered.api.world.Chunk;
 import org.spongepowered.api.world.biome.BiomeType;
 
 import java.util.Collection;
-import java.util.Set;
 
 public class GraniteChunk extends Composite<MCChunk> implements Chunk {
 
@@ -129,19 +126,35 @@ public class GraniteChunk extends Composite<MCChunk> implements Chunk {
 
     @Override
     public Collection<Entity> getEntities() {
-        ImmutableSet.Builder<Entity> entities = ImmutableSet.builder();
-        for (Set mcEntitySet : obj.fieldGet$entityLists()) {
-            for (Object entity : mcEntitySet) {
-                entities.add((Entity) wrap((MCEntity) entity));
-            }
-        }
-
-        return (Collection<Entity>) entities;
+        return EntityQueries.view(EntityQueries.all(obj));
     }
 
     @Override
     public Collection<Entity> getEntities(Predicate<Entity> predicate) {
-        return Sets.filter((Set<Entity>) getEntities(), predicate);
+        return EntityQueries.view(EntityQueries.all(obj), predicate);
+    }
+
+    /**
+     * Lazily finds the entities in this chunk whose position is inside the given box, in world coordinates.
+     *
+     * @param min The minimum corner of the box
+     * @param max The maximum corner of the box
+     * @return The matching entities
+     */
+    public Iterable<Entity> getEntities(Vector3d min, Vector3d max) {
+        return EntityQueries.wrap(EntityQueries.inBox(obj, min, max));
+    }
+
+    /**
+     * Lazily finds the entities of the given type in this chunk whose position is inside the given box, in world coordinates.
+     *
+     * @param min The minimum corner of the box
+     * @param max The maximum corner of the box
+     * @param type The entity type to filter by
+     * @return The matching entities
+     */
+    public <T extends Entity> Iterable<T> getEntities(Vector3d min, Vector3d max, Class<T> type) {
+        return Iterables.filter(getEntities(min, max), type);
     }
 
     @Override
@@ -30,7 +30,6 @@ import com.flowpowered.math.vector.Vector3i;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
 import org.apache.commons.lang3.NotImplementedException;
 import org.granitepowered.granite.composite.Composite;
 import org.granitepowered.granite.impl.block.GraniteBlockLoc;
@@ -38,12 +37,16 @@ import org.granitepowered.granite.impl.entity.GraniteEntity;
 import org.granitepowered.granite.impl.world.biome.GraniteBiomeType;
 import org.granitepowered.granite.mappings.Mappings;
 import org.granitepowered.granite.mc.MCBlockPos;
+import org.granitepowered.granite.mc.MCBlockState;
+import org.granitepowered.granite.mc.MCChunkProvider;
 import org.granitepowered.granite.mc.MCDerivedWorldInfo;
 import org.granitepowered.granite.mc.MCEntity;
 import org.granitepowered.granite.mc.MCEnumFacing;
+import org.granitepowered.granite.mc.MCExtendedBlockStorage;
 import org.granitepowered.granite.mc.MCGameRules;
 import org.granitepowered.granite.mc.MCWorld;
 import org.granitepowered.granite.mc.MCWorldInfo;
+import org.granitepowered.granite.util.Instantiator;
 import org.granitepowered.granite.util.MinecraftUtils;
 import org.spongepowered.api.block.BlockLoc;
 import org.spongepowered.api.effect.particle.ParticleEffect;
@@ -111,13 +114,9 @@ public class GraniteWorld extends Composite<MCWorld> implements World {
     }
 
     @Override
-    public Optional<Entity> getEntityFromUUID(final UUID uuid) {
-        return Iterables.tryFind(getEntities(), new Predicate<Entity>() {
-            @Override
-            public boolean apply(Entity input) {
-                return input.getUniqueId().equals(uuid);
-            }
-        });
+    public Optional<Entity> getEntityFromUUID(UUID uuid) {
+        MCEntity entity = obj.getEntityFromUuid(uuid);
+        return entity == null ? Optional.<Entity>absent() : Optional.<Entity>fromNullable((GraniteEntity) wrap(entity));
     }
 
     @Override
@@ -212,12 +211,190 @@ public class GraniteWorld extends Composite<MCWorld> implements World {
 
     @Override
     public Collection<Entity> getEntities() {
-        return Lists.<Entity>newArrayList(Iterables.transform(obj.fieldGet$loadedEntityList(), new MinecraftUtils.WrapFunction<GraniteEntity>()));
+        return EntityQueries.view(obj.fieldGet$loadedEntityList());
     }
 
     @Override
     public Collection<Entity> getEntities(Predicate<Entity> predicate) {
-        throw new NotImplementedException("");
+        return EntityQueries.view(obj.fieldGet$loadedEntityList(), predicate);
+    }
+
+    /**
+     * Lazily finds the entities whose position is inside the given box. Only loaded chunks are searched.
+     *
+     * @param min The minimum corner of the box
+     * @param max The maximum corner of the box
+     * @return The matching entities
+     */
+    public Iterable<Entity> getEntities(Vector3d min, Vector3d max) {
+        return EntityQueries.wrap(EntityQueries.inBox(obj.fieldGet$chunkProvider(), min, max));
+    }
+
+    /**
+     * Lazily finds the entities of the given type whose position is inside the given box. Only loaded chunks are searched.
+     *
+     * @param min The minimum corner of the box
+     * @param max The maximum corner of the box
+     * @param type The entity type to filter by
+     * @return The matching entities
+     */
+    public <T extends Entity> Iterable<T> getEntities(Vector3d min, Vector3d max, Class<T> type) {
+        return Iterables.filter(getEntities(min, max), type);
+    }
+
+    /**
+     * Lazily finds the entities within the given distance of a position. Only loaded chunks are searched.
+     *
+     * @param center The position to search around
+     * @param radius The maximum distance from the position
+     * @return The matching entities
+     */
+    public Iterable<Entity> getEntities(Vector3d center, double radius) {
+        return EntityQueries.wrap(EntityQueries.inRadius(obj.fieldGet$chunkProvider(), center, radius));
+    }
+
+    /**
+     * Lazily finds the entities of the given type within the given distance of a position. Only loaded chunks are searched.
+     *
+     * @param center The position to search around
+     * @param radius The maximum distance from the position
+     * @param type The entity type to filter by
+     * @return The matching entities
+     */
+    public <T extends Entity> Iterable<T> getEntities(Vector3d center, double radius, Class<T> type) {
+        return Iterables.filter(getEntities(center, radius), type);
+    }
+
+    /**
+     * Lazily finds the players within the given distance of a position.
+     *
+     * @param center The position to search around
+     * @param radius The maximum distance from the position
+     * @return The matching players
+     */
+    public Iterable<Player> getPlayers(Vector3d center, double radius) {
+        return EntityQueries.wrap(Iterables.filter(EntityQueries.inRadius(obj.fieldGet$chunkProvider(), center, radius), EntityQueries.PLAYERS));
+    }
+
+    /**
+     * Copies the blocks in the given cuboid into an array of palette ids, using a new palette. Callers copying more than once should
+     * reuse a palette through {@link #getBlocks(Vector3i, Vector3i, short[], BlockPalette)} instead.
+     *
+     * @param min The minimum corner, inclusive
+     * @param max The maximum corner, inclusive
+     * @param ids The array to copy into, indexed by {@code (y * sizeZ + z) * sizeX + x} relative to {@code min}
+     * @return The palette the ids refer to
+     */
+    public BlockPalette getBlocks(Vector3i min, Vector3i max, short[] ids) {
+        BlockPalette palette = new BlockPalette();
+        getBlocks(min, max, ids, palette);
+        return palette;
+    }
+
+    /**
+     * Copies the blocks in the given cuboid into an array of palette ids. Chunk sections are read directly, so nothing is allocated per
+     * block. Chunks are never loaded or generated: blocks in chunks that aren't loaded, and blocks outside the height of the world, are
+     * read as air.
+     *
+     * @param min The minimum corner, inclusive
+     * @param max The maximum corner, inclusive
+     * @param ids The array to copy into, indexed by {@code (y * sizeZ + z) * sizeX + x} relative to {@code min}
+     * @param palette The palette to map states with, new states are added to it
+     */
+    public void getBlocks(Vector3i min, Vector3i max, short[] ids, BlockPalette palette) {
+        int sizeX = max.getX() - min.getX() + 1;
+        int sizeZ = max.getZ() - min.getZ() + 1;
+        checkVolume(min, max, ids.length);
+
+        MCChunkProvider chunkProvider = obj.fieldGet$chunkProvider();
+        for (int chunkX = min.getX() >> 4; chunkX <= max.getX() >> 4; chunkX++) {
+            for (int chunkZ = min.getZ() >> 4; chunkZ <= max.getZ() >> 4; chunkZ++) {
+                MCExtendedBlockStorage[] sections = null;
+                if (chunkProvider.chunkExists(chunkX, chunkZ)) {
+                    sections = chunkProvider.provideChunk(chunkX, chunkZ).fieldGet$storageArrays();
+                }
+
+                int fromX = Math.max(min.getX(), chunkX << 4);
+                int toX = Math.min(max.getX(), (chunkX << 4) + 15);
+                int fromZ = Math.max(min.getZ(), chunkZ << 4);
+                int toZ = Math.min(max.getZ(), (chunkZ << 4) + 15);
+
+                for (int y = min.getY(); y <= max.getY(); y++) {
+                    MCExtendedBlockStorage section = sections != null && y >= 0 && y < 256 ? sections[y >> 4] : null;
+                    char[] data = section == null ? null : section.fieldGet$data();
+
+                    for (int z = fromZ; z <= toZ; z++) {
+                        int index = ((y - min.getY()) * sizeZ + (z - min.getZ())) * sizeX + (fromX - min.getX());
+                        for (int x = fromX; x <= toX; x++) {
+                            ids[index++] = palette.getId(section, data, x & 15, y & 15, z & 15);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the blocks in the given cuboid from an array of palette ids. Blocks which already have the wanted state are skipped, as are
+     * negative ids and blocks outside the height of the world. Chunks are never loaded or generated, so blocks in chunks that aren't
+     * loaded are skipped too.
+     *
+     * @param min The minimum corner, inclusive
+     * @param max The maximum corner, inclusive
+     * @param ids The array to copy from, indexed by {@code (y * sizeZ + z) * sizeX + x} relative to {@code min}
+     * @param palette The palette the ids refer to
+     */
+    public void setBlocks(Vector3i min, Vector3i max, short[] ids, BlockPalette palette) {
+        int sizeX = max.getX() - min.getX() + 1;
+        int sizeZ = max.getZ() - min.getZ() + 1;
+        checkVolume(min, max, ids.length);
+
+        MCBlockState air = BlockPalette.getAir();
+        MCChunkProvider chunkProvider = obj.fieldGet$chunkProvider();
+        for (int chunkX = min.getX() >> 4; chunkX <= max.getX() >> 4; chunkX++) {
+            for (int chunkZ = min.getZ() >> 4; chunkZ <= max.getZ() >> 4; chunkZ++) {
+                if (!chunkProvider.chunkExists(chunkX, chunkZ)) {
+                    continue;
+                }
+                MCExtendedBlockStorage[] sections = chunkProvider.provideChunk(chunkX, chunkZ).fieldGet$storageArrays();
+
+                int fromX = Math.max(min.getX(), chunkX << 4);
+                int toX = Math.min(max.getX(), (chunkX << 4) + 15);
+                int fromZ = Math.max(min.getZ(), chunkZ << 4);
+                int toZ = Math.min(max.getZ(), (chunkZ << 4) + 15);
+
+                for (int y = Math.max(min.getY(), 0); y <= Math.min(max.getY(), 255); y++) {
+                    for (int z = fromZ; z <= toZ; z++) {
+                        int index = ((y - min.getY()) * sizeZ + (z - min.getZ())) * sizeX + (fromX - min.getX());
+                        for (int x = fromX; x <= toX; x++) {
+                            short id = ids[index++];
+                            if (id < 0) {
+                                continue;
+                            }
+
+                            // Sections can be created by an earlier write, so look them up each time
+                            MCExtendedBlockStorage section = sections[y >> 4];
+                            MCBlockState current = section == null ? air : section.get(x & 15, y & 15, z & 15);
+                            MCBlockState state = palette.getMCState(id);
+                            if (current != state) {
+                                // Not a shared mutable position, the world can hold on to it for tile entities and scheduled updates
+                                obj.setBlockState(Instantiator.get().newBlockPos(x, y, z), state);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void checkVolume(Vector3i min, Vector3i max, int length) {
+        if (min.getX() > max.getX() || min.getY() > max.getY() || min.getZ() > max.getZ()) {
+            throw new IllegalArgumentException("Minimum corner " + min + " is above maximum corner " + max);
+        }
+        long volume = (long) (max.getX() - min.getX() + 1) * (max.getY() - min.getY() + 1) * (max.getZ() - min.getZ() + 1);
+        if (length < volume) {
+            throw new IllegalArgumentException("Array of length " + length + " is too small for a volume of " + volume + " blocks");
+        }
     }
 
     @Override
@@ -281,12 +458,8 @@ public class GraniteWorld extends Composite<MCWorld> implements World {
 
     @Override
     public void spawnParticles(ParticleEffect particleEffect, Vector3d position, int radius) {
-        for (Entity entity : getEntities()) {
-            if (entity instanceof Player) {
-                if (entity.getLocation().getPosition().distanceSquared(position) < radius * radius) {
-                    ((Player) entity).spawnParticles(particleEffect, position);
-                }
-            }
+        for (Player player : getPlayers(position, radius)) {
+            player.spawnParticles(particleEffect, position);
         }
     }
 
@@ -306,6 +479,17 @@ public class GraniteWorld extends Composite<MCWorld> implements World {
         this.obj.playSoundEffect(position.getX(), position.getY(), position.getZ(), sound.getName(), (float) volume, (float) pitch);
     }
 
+    /**
+     * Queues the block at the given position to be resent to every player watching its chunk. Like any other block change in the world,
+     * changes are collected per chunk and sent once at the end of the tick, as a single block change, a multi block change or the whole
+     * chunk.
+     *
+     * @param blockPos The position of the block
+     */
+    public void sendBlockChange(MCBlockPos blockPos) {
+        obj.getPlayerManager().markBlockForUpdate(blockPos);
+    }
+
     public boolean isPowered(MCBlockPos blockPos) {
         return obj.isPowered(blockPos);
     }
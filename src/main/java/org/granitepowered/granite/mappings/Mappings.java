@@ -24,15 +24,10 @@
 package org.granitepowered.granite.mappings;
 
 import com.github.kevinsawicki.http.HttpRequest;
+import com.google.common.base.Optional;
 import com.google.common.base.Throwables;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
-import com.typesafe.config.Config;
-import com.typesafe.config.ConfigFactory;
-import com.typesafe.config.ConfigObject;
-import com.typesafe.config.ConfigParseOptions;
-import com.typesafe.config.ConfigSyntax;
-import com.typesafe.config.ConfigValue;
 import javassist.ClassPool;
 import javassist.CtClass;
 import javassist.CtField;
@@ -43,8 +38,7 @@ import org.granitepowered.granite.Granite;
 import org.granitepowered.granite.util.ReflectionUtils;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
+import java.io.IOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
@@ -52,23 +46,32 @@ import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class Mappings {
 
-    static Config file;
+    static MappingsIndex index;
 
-    // Human -> Obfuscated Class
-    static BiMap<String, Class<?>> classes;
-    static BiMap<String, CtClass> ctClasses;
+    // Lookups read the concurrent maps below without locking. Resolving a class or building a table for the first time touches several
+    // of them at once, so that slow path holds this lock.
+    private static final Object resolveLock = new Object();
 
-    // Class -> <Name -> Method>
-    static Map<CtClass, BiMap<String, MethodHandle>> methods;
+    // Human <-> Obfuscated Class, filled in lazily from the index
+    static ConcurrentMap<String, Class<?>> classes;
+    static ConcurrentMap<Class<?>, String> classNames;
+    static ConcurrentMap<String, CtClass> ctClasses;
+    static ConcurrentMap<CtClass, String> ctClassNames;
+
+    // Class -> <Name -> Method>, only the members mapped on the class itself, guarded by resolveLock
     static Map<CtClass, BiMap<String, CtMethod>> ctMethods;
 
-    // Class -> <Human Name -> Field>
-    static Map<CtClass, BiMap<String, Field>> fields;
+    // Class -> <Human Name -> Field>, only the members mapped on the class itself, guarded by resolveLock
     static Map<CtClass, BiMap<String, CtField>> ctFields;
 
+    // Class -> Every member visible on it
+    static ConcurrentMap<CtClass, MemberTable> tables;
+
     static ClassPool pool;
 
     private static void downloadMappings(File mappingsFile, String url, HttpRequest req) {
@@ -83,99 +86,143 @@ public class Mappings {
     }
 
     public static void load() {
+        File mappingsFile = new File(Granite.instance.getServerConfig().getMappingsFile().getAbsolutePath());
+        String url = "https://raw.githubusercontent.com/GraniteTeam/GraniteMappings/sponge/1.8.1.json";
         try {
-            File mappingsFile = new File(Granite.instance.getServerConfig().getMappingsFile().getAbsolutePath());
-            String url = "https://raw.githubusercontent.com/GraniteTeam/GraniteMappings/sponge/1.8.1.json";
-            try {
-                HttpRequest req = HttpRequest.get(url);
-
-                if (Granite.instance.getServerConfig().getAutomaticMappingsUpdating()) {
-                    Granite.instance.getLogger().info("Querying Granite for updates");
-                    if (!mappingsFile.exists()) {
-                        Granite.instance.getLogger().warn("Could not find mappings.json");
-                        downloadMappings(mappingsFile, url, req);
-                    } else if (!Objects.equals(req.eTag(), Granite.instance.getServerConfig().getLatestMappingsEtag())) {
-                        Granite.instance.getLogger().info("Update found");
-                        downloadMappings(mappingsFile, url, req);
-                    }
-                }
-            } catch (HttpRequest.HttpRequestException e) {
-                Granite.instance.getLogger().warn("Could not reach Granite mappings, falling back to local");
+            HttpRequest req = HttpRequest.get(url);
 
+            if (Granite.instance.getServerConfig().getAutomaticMappingsUpdating()) {
+                Granite.instance.getLogger().info("Querying Granite for updates");
                 if (!mappingsFile.exists()) {
-                    Granite.instance.getLogger()
-                            .warn("Could not find local mappings file. Obtain it (somehow) and place it in the server's root directory called \"mappings.json\"");
-                    Throwables.propagate(e);
-                } else {
-                    Granite.error(e);
+                    Granite.instance.getLogger().warn("Could not find mappings.json");
+                    downloadMappings(mappingsFile, url, req);
+                } else if (!Objects.equals(req.eTag(), Granite.instance.getServerConfig().getLatestMappingsEtag())) {
+                    Granite.instance.getLogger().info("Update found");
+                    downloadMappings(mappingsFile, url, req);
                 }
             }
-            file = ConfigFactory.parseReader(
-                    new InputStreamReader(
-                            new FileInputStream(mappingsFile)
-                    ),
-                    ConfigParseOptions.defaults().setSyntax(ConfigSyntax.JSON)
-            );
-        } catch (java.io.IOException e) {
+        } catch (HttpRequest.HttpRequestException e) {
+            Granite.instance.getLogger().warn("Could not reach Granite mappings, falling back to local");
+
+            if (!mappingsFile.exists()) {
+                Granite.instance.getLogger()
+                        .warn("Could not find local mappings file. Obtain it (somehow) and place it in the server's root directory called \"mappings.json\"");
+                Throwables.propagate(e);
+            } else {
+                Granite.error(e);
+            }
+        }
+
+        load(mappingsFile, Granite.getInstance().getClassPool());
+    }
+
+    static void load(File mappingsFile, ClassPool classPool) {
+        pool = classPool;
+        try {
+            index = MappingsIndex.open(mappingsFile, pool);
+        } catch (IOException e) {
             Throwables.propagate(e);
         }
 
-        classes = HashBiMap.create();
-        ctClasses = HashBiMap.create();
+        classes = new ConcurrentHashMap<>();
+        classNames = new ConcurrentHashMap<>();
+        ctClasses = new ConcurrentHashMap<>();
+        ctClassNames = new ConcurrentHashMap<>();
 
-        methods = new HashMap<>();
         ctMethods = new HashMap<>();
-
-        fields = new HashMap<>();
         ctFields = new HashMap<>();
+        tables = new ConcurrentHashMap<>();
+    }
 
-        pool = Granite.getInstance().getClassPool();
+    /**
+     * Resolves a mapped class and its members the first time it is asked for.
+     */
+    private static CtClass resolve(String humanClassName) {
+        CtClass ctClass = ctClasses.get(humanClassName);
+        if (ctClass != null) {
+            return ctClass;
+        }
+
+        synchronized (resolveLock) {
+            return resolveLocked(humanClassName);
+        }
+    }
+
+    private static CtClass resolveLocked(String humanClassName) {
+        CtClass ctClass = ctClasses.get(humanClassName);
+        if (ctClass != null) {
+            return ctClass;
+        }
+
+        boolean array = humanClassName.endsWith("[]");
+        MappingsIndex.ClassMapping mapping = index.getClass(array ? humanClassName.substring(0, humanClassName.length() - 2) : humanClassName);
+        if (mapping == null) {
+            return null;
+        }
 
         try {
-            for (Map.Entry<String, ConfigValue> classObject : file.getObject("classes").entrySet()) {
-                String className = (String) ((ConfigObject) classObject.getValue()).get("name").unwrapped();
-                ctClasses.put(classObject.getKey(), pool.get(className));
-                ctClasses.put(classObject.getKey() + "[]", pool.get(className + "[]"));
+            if (array) {
+                ctClass = pool.get(mapping.getObfuscatedName() + "[]");
+                ctClassNames.put(ctClass, humanClassName);
+                ctClasses.put(humanClassName, ctClass);
+            } else {
+                ctClass = pool.get(mapping.getObfuscatedName());
+                // Lock-free readers can see the class before its members are in, but members are only read through tables, which are
+                // built under the lock.
+                ctClassNames.put(ctClass, humanClassName);
+                ctClasses.put(humanClassName, ctClass);
+                resolveMembers(ctClass, mapping);
             }
+        } catch (NotFoundException e) {
+            Throwables.propagate(e);
+        }
+        return ctClass;
+    }
 
-            for (Map.Entry<String, CtClass> entry : ctClasses.entrySet()) {
-                CtClass ctClass = entry.getValue();
-                if (!entry.getKey().endsWith("[]")) {
-                    ConfigObject classObject = file.getObject("classes." + entry.getKey().replaceAll("\\$", "\"\\$\""));
+    private static void resolveMembers(CtClass ctClass, MappingsIndex.ClassMapping mapping) throws NotFoundException {
+        if (!ctMethods.containsKey(ctClass)) {
+            ctMethods.put(ctClass, HashBiMap.<String, CtMethod>create());
+        }
 
-                    methods.put(ctClass, HashBiMap.<String, MethodHandle>create());
-                    ctMethods.put(ctClass, HashBiMap.<String, CtMethod>create());
+        for (Map.Entry<String, String> methodEntry : mapping.getMethods().entrySet()) {
+            String methodSignature = methodEntry.getKey();
+            String methodName = methodEntry.getValue();
 
-                    if (classObject.containsKey("methods")) {
-                        for (Map.Entry<String, ConfigValue> methodEntry : ((ConfigObject) classObject.get("methods")).entrySet()) {
-                            String methodSignature = methodEntry.getKey();
-                            String methodName = (String) methodEntry.getValue().unwrapped();
+            // The index already files each method under the mapped class that declares it
+            CtMethod method = ctClass.getMethod(methodSignature.split("\\(")[0], "(" + methodSignature.split("\\(")[1]);
+            ctMethods.get(ctClass).put(methodName, method);
+        }
 
-                            CtMethod method = ctClass.getMethod(methodSignature.split("\\(")[0], "(" + methodSignature.split("\\(")[1]);
-                            ctMethods.get(method.getDeclaringClass()).put(methodName, method);
-                        }
-                    }
+        if (!ctFields.containsKey(ctClass)) {
+            ctFields.put(ctClass, HashBiMap.<String, CtField>create());
+        }
 
-                    fields.put(ctClass, HashBiMap.<String, Field>create());
-                    ctFields.put(ctClass, HashBiMap.<String, CtField>create());
+        for (Map.Entry<String, String> fieldEntry : mapping.getFields().entrySet()) {
+            String obfuscatedFieldName = fieldEntry.getKey();
+            String fieldName = fieldEntry.getValue();
 
-                    if (classObject.containsKey("fields")) {
-                        for (Map.Entry<String, ConfigValue> fieldEntry : ((ConfigObject) classObject.get("fields")).entrySet()) {
-                            String obfuscatedFieldName = fieldEntry.getKey();
-                            String fieldName = (String) fieldEntry.getValue().unwrapped();
+            ctFields.get(ctClass).put(fieldName, ctClass.getDeclaredField(obfuscatedFieldName));
+        }
+    }
 
-                            ctFields.get(ctClass).put(fieldName, ctClass.getDeclaredField(obfuscatedFieldName));
-                        }
-                    }
-                }
-            }
-        } catch (NotFoundException e) {
-            Throwables.propagate(e);
+    /**
+     * Resolves the given class if it is mapped but has not been asked for by its human name yet.
+     */
+    private static void ensureResolved(CtClass ctClass) {
+        if (ctClassNames.containsKey(ctClass)) {
+            return;
+        }
+
+        String name = ctClass.getName();
+        boolean array = name.endsWith("[]");
+        String humanClassName = index.getHumanName(array ? name.substring(0, name.length() - 2) : name);
+        if (humanClassName != null) {
+            resolve(array ? humanClassName + "[]" : humanClassName);
         }
     }
 
     public static CtClass getCtClass(String humanClassName) {
-        return ctClasses.get(humanClassName);
+        return resolve(humanClassName);
     }
 
     public static CtClass getCtClass(Class<?> clazz) {
@@ -187,15 +234,18 @@ public class Mappings {
     }
 
     public static String getClassName(CtClass ctClass) {
-        if (!ctClasses.inverse().containsKey(ctClass)) {
+        ensureResolved(ctClass);
+        String humanClassName = ctClassNames.get(ctClass);
+        if (humanClassName == null) {
             throw new MappingNotFoundException("Could not find CtClass " + ctClass.getName());
         }
-        return ctClasses.inverse().get(ctClass);
+        return humanClassName;
     }
 
     public static String getClassName(Class<?> clazz) {
-        if (classes.inverse().containsKey(clazz)) {
-            return classes.inverse().get(clazz);
+        String humanClassName = classNames.get(clazz);
+        if (humanClassName != null) {
+            return humanClassName;
         } else {
             try {
                 return getClassName(pool.get(clazz.getName()));
@@ -206,15 +256,18 @@ public class Mappings {
     }
 
     public static Class<?> getClass(String humanClassName) {
-        if (classes.containsKey(humanClassName)) {
-            return classes.get(humanClassName);
+        Class<?> cached = classes.get(humanClassName);
+        if (cached != null) {
+            return cached;
         } else {
             try {
-                if (!ctClasses.containsKey(humanClassName)) {
+                CtClass ctClass = resolve(humanClassName);
+                if (ctClass == null) {
                     throw new MappingNotFoundException("Could not find CtClass " + humanClassName);
                 }
-                Class<?> clazz = Class.forName(ctClasses.get(humanClassName).getName());
-                classes.put(humanClassName, clazz);
+                Class<?> clazz = Class.forName(ctClass.getName());
+                classNames.putIfAbsent(clazz, humanClassName);
+                classes.putIfAbsent(humanClassName, clazz);
                 return clazz;
             } catch (ClassNotFoundException e) {
                 throw new MappingNotFoundException("Could not find class " + humanClassName);
@@ -223,31 +276,24 @@ public class Mappings {
     }
 
     public static Field getField(CtClass clazz, String humanFieldName) {
-        if (fields.containsKey(clazz)) {
-            if (fields.get(clazz).containsKey(humanFieldName)) {
-                return fields.get(clazz).get(humanFieldName);
-            } else {
-                try {
-                    CtField ctField = ctFields.get(clazz).get(humanFieldName);
-                    if (ctField == null && !clazz.getName().equals("java.lang.Object")) {
-                        return getField(clazz.getSuperclass(), humanFieldName);
-                    }
-                    Field field = getClass(getClassName(ctField.getDeclaringClass())).getDeclaredField(ctField.getName());
-                    fields.get(clazz).put(humanFieldName, field);
-                    field.setAccessible(true);
-                    return field;
-                } catch (NoSuchFieldException | NotFoundException e) {
-                    throw new MappingNotFoundException("Could not find field " + clazz.getName() + "." + humanFieldName);
-                }
-            }
-        } else if (!clazz.getName().equals("java.lang.Object")) {
+        MemberTable table = getTable(clazz);
+        Optional<Field> cached = table.fields.get(humanFieldName);
+        if (cached != null) {
+            return cached.orNull();
+        }
+
+        Field field = null;
+        CtField ctField = table.ctFields.get(humanFieldName);
+        if (ctField != null) {
             try {
-                return getField(clazz.getSuperclass(), humanFieldName);
-            } catch (NotFoundException e) {
-                throw new MappingNotFoundException("Could not find superclass");
+                field = getClass(getClassName(ctField.getDeclaringClass())).getDeclaredField(ctField.getName());
+                field.setAccessible(true);
+            } catch (NoSuchFieldException e) {
+                throw new MappingNotFoundException("Could not find field " + clazz.getName() + "." + humanFieldName);
             }
         }
-        return null;
+        table.fields.putIfAbsent(humanFieldName, Optional.fromNullable(field));
+        return field;
     }
 
     public static Field getField(String clazz, String humanFieldName) {
@@ -259,43 +305,29 @@ public class Mappings {
     }
 
     public static MethodHandle getMethod(CtClass clazz, String methodName) {
-        if (methods.containsKey(clazz)) {
-            if (methods.get(clazz).containsKey(methodName)) {
-                return methods.get(clazz).get(methodName);
-            } else {
-                CtMethod ctMethod = ctMethods.get(clazz).get(methodName);
-
-                if (ctMethod != null) {
-                    try {
-                        Class<?>[] paramTypes = new Class<?>[ctMethod.getParameterTypes().length];
-                        for (int i = 0; i < paramTypes.length; i++) {
-                            paramTypes[i] = ReflectionUtils.getClassByName(ctMethod.getParameterTypes()[i].getName());
-                        }
-                        Method m = Class.forName(ctMethod.getDeclaringClass().getName()).getDeclaredMethod(ctMethod.getName(), paramTypes);
-                        m.setAccessible(true);
-                        MethodHandle handle = MethodHandles.lookup().unreflect(m);
-
-                        methods.get(clazz).put(methodName, handle);
-                        return handle;
-                    } catch (NotFoundException | NoSuchMethodException | IllegalAccessException | ClassNotFoundException e) {
-                        throw new MappingNotFoundException("Could not find method " + clazz.getName() + "." + methodName);
-                    }
-                }
-            }
+        MemberTable table = getTable(clazz);
+        Optional<MethodHandle> cached = table.methods.get(methodName);
+        if (cached != null) {
+            return cached.orNull();
         }
-        try {
-            CtClass superClass = clazz.getSuperclass();
-            if (superClass == null || superClass.getName().equals("java.lang.Object")) {
-                for (CtClass interfac : clazz.getInterfaces()) {
-                    MethodHandle m = getMethod(interfac, methodName);
-                    return m;
+
+        MethodHandle handle = null;
+        CtMethod ctMethod = table.ctMethods.get(methodName);
+        if (ctMethod != null) {
+            try {
+                Class<?>[] paramTypes = new Class<?>[ctMethod.getParameterTypes().length];
+                for (int i = 0; i < paramTypes.length; i++) {
+                    paramTypes[i] = ReflectionUtils.getClassByName(ctMethod.getParameterTypes()[i].getName());
                 }
-            } else {
-                return getMethod(superClass, methodName);
+                Method m = Class.forName(ctMethod.getDeclaringClass().getName()).getDeclaredMethod(ctMethod.getName(), paramTypes);
+                m.setAccessible(true);
+                handle = MethodHandles.lookup().unreflect(m);
+            } catch (NotFoundException | NoSuchMethodException | IllegalAccessException | ClassNotFoundException e) {
+                throw new MappingNotFoundException("Could not find method " + clazz.getName() + "." + methodName);
             }
-        } catch (NotFoundException ignored) {
         }
-        return null;
+        table.methods.putIfAbsent(methodName, Optional.fromNullable(handle));
+        return handle;
     }
 
     public static MethodHandle getMethod(String clazz, String methodName) {
@@ -307,30 +339,7 @@ public class Mappings {
     }
 
     public static CtMethod getCtMethod(CtClass clazz, String methodName) {
-        if (ctMethods.containsKey(clazz) && ctMethods.get(clazz).containsKey(methodName)) {
-            return ctMethods.get(clazz).get(methodName);
-        }
-
-        try {
-            for (CtClass interfac : clazz.getInterfaces()) {
-                CtMethod imethod = getCtMethod(interfac, methodName);
-                if (imethod != null) {
-                    return imethod;
-                }
-            }
-
-            CtClass superClass = clazz.getSuperclass();
-
-            if (superClass != null) {
-                CtMethod method = getCtMethod(superClass, methodName);
-                if (method != null) {
-                    return method;
-                }
-            }
-        } catch (NotFoundException e) {
-            throw new MappingNotFoundException("Could not find method " + clazz.getName() + "." + methodName);
-        }
-        return null;
+        return getTable(clazz).ctMethods.get(methodName);
     }
 
     public static CtMethod getCtMethod(String clazz, String methodName) {
@@ -338,20 +347,11 @@ public class Mappings {
     }
 
     public static CtField getCtField(CtClass clazz, String humanFieldName) {
-        try {
-            if (!ctFields.containsKey(clazz)) {
-                throw new MappingNotFoundException("Could not find class " + clazz.getName());
-            }
-            CtField ctField = ctFields.get(clazz).get(humanFieldName);
-
-            if (ctField == null && !clazz.getName().equals("java.lang.Object")) {
-                return getCtField(clazz.getSuperclass(), humanFieldName);
-            }
-
-            return ctField;
-        } catch (NotFoundException e) {
+        CtField ctField = getTable(clazz).ctFields.get(humanFieldName);
+        if (ctField == null) {
             throw new MappingNotFoundException("Could not find field " + clazz.getName() + "." + humanFieldName);
         }
+        return ctField;
     }
 
     public static CtField getCtField(String clazz, String humanCtfieldName) {
@@ -362,6 +362,52 @@ public class Mappings {
         return getCtField(getCtClass(clazz), humanCtfieldName);
     }
 
+    /**
+     * Returns every mapped member visible on the given class, built once from its own mappings, its interfaces and its superclass.
+     */
+    private static MemberTable getTable(CtClass clazz) {
+        MemberTable table = tables.get(clazz);
+        if (table != null) {
+            return table;
+        }
+
+        synchronized (resolveLock) {
+            return buildTable(clazz);
+        }
+    }
+
+    private static MemberTable buildTable(CtClass clazz) {
+        MemberTable table = tables.get(clazz);
+        if (table != null) {
+            return table;
+        }
+
+        ensureResolved(clazz);
+
+        table = new MemberTable();
+        if (ctMethods.containsKey(clazz)) {
+            table.ctMethods.putAll(ctMethods.get(clazz));
+            table.ctFields.putAll(ctFields.get(clazz));
+        }
+
+        try {
+            // Members closer to the class win, interfaces are searched before the superclass
+            for (CtClass interfac : clazz.getInterfaces()) {
+                table.inherit(buildTable(interfac));
+            }
+
+            CtClass superClass = clazz.getSuperclass();
+            if (superClass != null) {
+                table.inherit(buildTable(superClass));
+            }
+        } catch (NotFoundException e) {
+            throw new MappingNotFoundException("Could not find superclass of " + clazz.getName());
+        }
+
+        tables.put(clazz, table);
+        return table;
+    }
+
     public static Object invoke(Object object, String methodName, Object... args) {
         return invoke(object, getMethod(getCtClass(object.getClass()), methodName), args);
     }
@@ -392,6 +438,30 @@ public class Mappings {
         return invokeStatic(getClass(className), methodName, args);
     }
 
+    private static class MemberTable {
+
+        // Human Name -> Member, including inherited members, never changed once the table is published
+        final Map<String, CtMethod> ctMethods = new HashMap<>();
+        final Map<String, CtField> ctFields = new HashMap<>();
+
+        // Human Name -> Reflected Member, absent if there is no such member
+        final ConcurrentMap<String, Optional<MethodHandle>> methods = new ConcurrentHashMap<>();
+        final ConcurrentMap<String, Optional<Field>> fields = new ConcurrentHashMap<>();
+
+        void inherit(MemberTable parent) {
+            for (Map.Entry<String, CtMethod> entry : parent.ctMethods.entrySet()) {
+                if (!ctMethods.containsKey(entry.getKey())) {
+                    ctMethods.put(entry.getKey(), entry.getValue());
+                }
+            }
+            for (Map.Entry<String, CtField> entry : parent.ctFields.entrySet()) {
+                if (!ctFields.containsKey(entry.getKey())) {
+                    ctFields.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
     private static class MappingNotFoundException extends RuntimeException {
 
         public MappingNotFoundException(String s) {
@@ -0,0 +1,392 @@
+/*
+ * License (MIT)
+ *
+ * Copyright (c) 2014-2015 Granite Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the
+ * Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.granitepowered.granite.mappings;
+
+import com.google.common.base.Charsets;
+import com.google.gson.stream.JsonReader;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.NotFoundException;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A compact binary copy of mappings.json, stored beside it as mappings.json.idx and memory-mapped at startup. Classes are looked up by
+ * binary search and their members are only decoded when a class is first resolved. The index records the size and modification time
+ * of the JSON it was built from, so checking it is up to date does not read the JSON. It is rebuilt whenever either changes.
+ *
+ * <p>Each method is stored under the mapped class that declares it, even if the JSON lists it under a subclass, so resolving a class
+ * finds all of its methods whatever was resolved before it.</p>
+ *
+ * <p>Layout: magic, version, JSON size, JSON modification time, class count, the record offsets sorted by human name, the record offsets sorted by
+ * obfuscated name, then one record per class: human name, obfuscated name, methods (signature, name) and fields (obfuscated, name).</p>
+ */
+final class MappingsIndex {
+
+    private static final int MAGIC = 0x474d4958;
+    private static final int VERSION = 3;
+    private static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + 4;
+
+    private final ByteBuffer buffer;
+    private final int classCount;
+
+    private MappingsIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.classCount = buffer.getInt(HEADER_LENGTH - 4);
+    }
+
+    /**
+     * Opens the index for the given mappings file, building it first if it is missing or out of date.
+     */
+    static MappingsIndex open(File jsonFile, ClassPool pool) throws IOException {
+        long size = jsonFile.length();
+        long lastModified = jsonFile.lastModified();
+
+        // Only check the header before mapping, since a file that is still mapped can't be replaced on every platform
+        File indexFile = new File(jsonFile.getPath() + ".idx");
+        if (isBuiltFrom(indexFile, size, lastModified)) {
+            MappingsIndex index = map(indexFile);
+            if (index != null) {
+                return index;
+            }
+        }
+
+        File tempFile = new File(jsonFile.getPath() + ".idx.tmp");
+        Files.write(tempFile.toPath(), build(jsonFile, size, lastModified, pool));
+        Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        MappingsIndex index = map(indexFile);
+        if (index == null) {
+            throw new IOException("Could not read back " + indexFile);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the class with the given human name, or null if it is not mapped.
+     */
+    ClassMapping getClass(String humanName) {
+        int record = find(HEADER_LENGTH, humanName, 0);
+        return record < 0 ? null : readRecord(record);
+    }
+
+    /**
+     * Returns the human name of the class with the given obfuscated name, or null if it is not mapped.
+     */
+    String getHumanName(String obfuscatedName) {
+        int record = find(HEADER_LENGTH + classCount * 4, obfuscatedName, 1);
+        return record < 0 ? null : readString(record);
+    }
+
+    private int find(int table, String name, int key) {
+        int low = 0;
+        int high = classCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int record = buffer.getInt(table + mid * 4);
+
+            int position = record;
+            for (int i = 0; i < key; i++) {
+                position += 2 + (buffer.getShort(position) & 0xffff);
+            }
+
+            int compare = readString(position).compareTo(name);
+            if (compare < 0) {
+                low = mid + 1;
+            } else if (compare > 0) {
+                high = mid - 1;
+            } else {
+                return record;
+            }
+        }
+        return -1;
+    }
+
+    private ClassMapping readRecord(int position) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(position);
+
+        String humanName = readString(record);
+        String obfuscatedName = readString(record);
+
+        Map<String, String> methods = new LinkedHashMap<>();
+        for (int i = record.getInt(); i > 0; i--) {
+            methods.put(readString(record), readString(record));
+        }
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = record.getInt(); i > 0; i--) {
+            fields.put(readString(record), readString(record));
+        }
+
+        return new ClassMapping(humanName, obfuscatedName, methods, fields);
+    }
+
+    private String readString(int position) {
+        ByteBuffer string = buffer.duplicate();
+        string.position(position);
+        return readString(string);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xffff];
+        buffer.get(bytes);
+        return new String(bytes, Charsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(Charsets.UTF_8);
+        if (bytes.length > 0xffff) {
+            throw new IOException("Name too long for the mappings index: " + string);
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static boolean isBuiltFrom(File indexFile, long size, long lastModified) throws IOException {
+        if (!indexFile.exists()) {
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            return in.readInt() == MAGIC && in.readInt() == VERSION && in.readLong() == size && in.readLong() == lastModified;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private static MappingsIndex map(File indexFile) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(indexFile, "r"); FileChannel channel = file.getChannel()) {
+            if (channel.size() < HEADER_LENGTH) {
+                return null;
+            }
+
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return null;
+            }
+            return new MappingsIndex(buffer);
+        }
+    }
+
+    private static byte[] build(File jsonFile, long size, long lastModified, ClassPool pool) throws IOException {
+        Map<String, ClassMapping> classes = new TreeMap<>();
+
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new BufferedInputStream(new FileInputStream(jsonFile)), Charsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("classes")) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String humanName = reader.nextName();
+                        classes.put(humanName, readClass(reader, humanName));
+                    }
+                    reader.endObject();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        moveMethodsToOwners(classes, pool);
+
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+
+        int recordsStart = HEADER_LENGTH + classes.size() * 8;
+        Map<String, Integer> offsets = new TreeMap<>();
+        for (ClassMapping mapping : classes.values()) {
+            offsets.put(mapping.getHumanName(), recordsStart + records.size());
+
+            writeString(records, mapping.getHumanName());
+            writeString(records, mapping.getObfuscatedName());
+            writeMembers(records, mapping.getMethods());
+            writeMembers(records, mapping.getFields());
+        }
+
+        List<ClassMapping> byObfuscatedName = new ArrayList<>(classes.values());
+        Collections.sort(byObfuscatedName, new Comparator<ClassMapping>() {
+            @Override
+            public int compare(ClassMapping o1, ClassMapping o2) {
+                return o1.getObfuscatedName().compareTo(o2.getObfuscatedName());
+            }
+        });
+
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream(recordsStart + records.size());
+        DataOutputStream index = new DataOutputStream(indexBytes);
+        index.writeInt(MAGIC);
+        index.writeInt(VERSION);
+        index.writeLong(size);
+        index.writeLong(lastModified);
+        index.writeInt(classes.size());
+        for (int offset : offsets.values()) {
+            index.writeInt(offset);
+        }
+        for (ClassMapping mapping : byObfuscatedName) {
+            index.writeInt(offsets.get(mapping.getHumanName()));
+        }
+        recordBytes.writeTo(index);
+
+        return indexBytes.toByteArray();
+    }
+
+    /**
+     * Moves each method listed under a class but declared in another mapped class, usually a superclass, to the class declaring it.
+     */
+    private static void moveMethodsToOwners(Map<String, ClassMapping> classes, ClassPool pool) throws IOException {
+        Map<String, ClassMapping> byObfuscatedName = new HashMap<>();
+        for (ClassMapping mapping : classes.values()) {
+            byObfuscatedName.put(mapping.getObfuscatedName(), mapping);
+        }
+
+        try {
+            for (ClassMapping mapping : classes.values()) {
+                CtClass ctClass = pool.get(mapping.getObfuscatedName());
+
+                Iterator<Map.Entry<String, String>> methods = mapping.getMethods().entrySet().iterator();
+                while (methods.hasNext()) {
+                    Map.Entry<String, String> method = methods.next();
+                    String signature = method.getKey();
+                    int paren = signature.indexOf('(');
+
+                    CtClass declaringClass = ctClass.getMethod(signature.substring(0, paren), signature.substring(paren)).getDeclaringClass();
+                    ClassMapping owner = byObfuscatedName.get(declaringClass.getName());
+                    if (owner != null && owner != mapping) {
+                        if (!owner.getMethods().containsKey(signature)) {
+                            owner.getMethods().put(signature, method.getValue());
+                        }
+                        methods.remove();
+                    }
+                }
+            }
+        } catch (NotFoundException e) {
+            throw new IOException("Mappings refer to a missing class or method", e);
+        }
+    }
+
+    private static ClassMapping readClass(JsonReader reader, String humanName) throws IOException {
+        String obfuscatedName = null;
+        Map<String, String> methods = new LinkedHashMap<>();
+        Map<String, String> fields = new LinkedHashMap<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    obfuscatedName = reader.nextString();
+                    break;
+                case "methods":
+                    readMembers(reader, methods);
+                    break;
+                case "fields":
+                    readMembers(reader, fields);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (obfuscatedName == null) {
+            throw new IOException("Class " + humanName + " has no name in the mappings");
+        }
+        return new ClassMapping(humanName, obfuscatedName, methods, fields);
+    }
+
+    private static void readMembers(JsonReader reader, Map<String, String> members) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            members.put(reader.nextName(), reader.nextString());
+        }
+        reader.endObject();
+    }
+
+    private static void writeMembers(DataOutputStream out, Map<String, String> members) throws IOException {
+        out.writeInt(members.size());
+        for (Map.Entry<String, String> member : members.entrySet()) {
+            writeString(out, member.getKey());
+            writeString(out, member.getValue());
+        }
+    }
+
+    static class ClassMapping {
+
+        private final String humanName;
+        private final String obfuscatedName;
+
+        // Signature -> Human Name
+        private final Map<String, String> methods;
+
+        // Obfuscated -> Human Name
+        private final Map<String, String> fields;
+
+        ClassMapping(String humanName, String obfuscatedName, Map<String, String> methods, Map<String, String> fields) {
+            this.humanName = humanName;
+            this.obfuscatedName = obfuscatedName;
+            this.methods = methods;
+            this.fields = fields;
+        }
+
+        String getHumanName() {
+            return humanName;
+        }
+
+        String getObfuscatedName() {
+            return obfuscatedName;
+        }
+
+        Map<String, String> getMethods() {
+            return methods;
+        }
+
+        Map<String, String> getFields() {
+            return fields;
+        }
+    }
+}
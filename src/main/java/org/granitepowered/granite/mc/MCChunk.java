@@ -36,5 +36,7 @@ public interface MCChunk extends MCInterface {
 
     Set[] fieldGet$entityLists();
 
+    MCExtendedBlockStorage[] fieldGet$storageArrays();
+
     byte[] fieldGet$blockBiomeArray();
 }
@@ -24,6 +24,7 @@
 package org.granitepowered.granite.mc;
 
 import java.util.List;
+import java.util.UUID;
 
 @Implement(name = "WorldServer")
 public interface MCWorld extends MCInterface {
@@ -38,8 +39,12 @@ public interface MCWorld extends MCInterface {
 
     MCWorldProvider fieldGet$provider();
 
+    MCPlayerManager getPlayerManager();
+
     boolean spawnEntityInWorld(MCEntity entity);
 
+    MCEntity getEntityFromUuid(UUID uuid);
+
     MCBlockState getBlockState(MCBlockPos blockPos);
 
     boolean setBlockState(MCBlockPos blockPos, MCBlockState blockState);
@@ -23,6 +23,7 @@
 
 package org.granitepowered.granite.util;
 
+import org.granitepowered.granite.mc.MCBlock;
 import org.granitepowered.granite.mc.MCBlockPos;
 import org.granitepowered.granite.mc.MCChatComponent;
 import org.granitepowered.granite.mc.MCEntityArrow;
@@ -32,6 +33,8 @@ import org.granitepowered.granite.mc.MCEntityLivingBase;
 import org.granitepowered.granite.mc.MCEntitySmallFireball;
 import org.granitepowered.granite.mc.MCGameProfile;
 import org.granitepowered.granite.mc.MCGameRules;
+import org.granitepowered.granite.mc.MCItem;
+import org.granitepowered.granite.mc.MCItemStack;
 import org.granitepowered.granite.mc.MCPacketBlockChange;
 import org.granitepowered.granite.mc.MCPacketChat;
 import org.granitepowered.granite.mc.MCPacketParticles;
@@ -83,5 +86,9 @@ public class Instantiator {
                                                      double something3);
 
         MCGameProfile newGameProfile(UUID uuid, String name);
+
+        MCItemStack newItemStack(MCItem item, int amount, int damage);
+
+        MCItemStack newItemStack(MCBlock block, int amount, int damage);
     }
 }
@@ -68,8 +68,6 @@ import org.granitepowered.granite.mc.MCInterface;
 import org.granitepowered.granite.mc.MCRotations;
 import org.spongepowered.api.text.message.Message;
 
-import java.util.Objects;
-
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -110,25 +108,29 @@ public class MinecraftUtils {
             .put(Mappings.getClass("WorldProvider"), GraniteDimension.class)
             .build();
 
+    /**
+     * The composite type for each Minecraft class, found by walking up to the closest superclass in {@link #composites}.
+     */
+    private static final ClassValue<Class<? extends Composite>> compositeTypes = new ClassValue<Class<? extends Composite>>() {
+        @Override
+        protected Class<? extends Composite> computeValue(Class<?> type) {
+            for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+                Class<? extends Composite> compositeType = composites.get(clazz);
+                if (compositeType != null) {
+                    return compositeType;
+                }
+            }
+            return null;
+        }
+    };
+
     @Nonnull
     public static <T extends Composite> T wrap(MCInterface obj) {
         if (obj == null) {
             return null;
         }
 
-        Class<?> clazz = obj.getClass();
-        while (!composites.containsKey(clazz)) {
-            if (Objects.equals(clazz.getName(), "Object")) {
-                break;
-            }
-            clazz = clazz.getSuperclass();
-        }
-
-        if (composites.containsKey(clazz)) {
-            return (T) Composite.new_(obj, composites.get(clazz));
-        } else {
-            return null;
-        }
+        return Composite.wrap(obj, compositeTypes);
     }
 
     public static <T extends MCInterface> T unwrap(Object composite) {
@@ -141,7 +143,7 @@ public class MinecraftUtils {
 
     public static MCChatComponent graniteToMinecraftChatComponent(Message message) {
         String json = Granite.getInstance().getGson().toJson(message, GraniteMessage.class);
-        return (MCChatComponent) Mappings.invokeStatic("IChatComponent$Serializer", "jsonToComponent", json);
+        return StaticInvoker.get().jsonToComponent(json);
     }
 
     public static MCBlockPos graniteToMinecraftBlockPos(Vector3i vector) {
@@ -153,7 +155,7 @@ public class MinecraftUtils {
     }
 
     public static Message minecraftToGraniteMessage(MCChatComponent deathComponent) {
-        String json = (String) Mappings.invokeStatic("IChatComponent$Serializer", "componentToJson", deathComponent);
+        String json = StaticInvoker.get().componentToJson(deathComponent);
         return Granite.getInstance().getGson().fromJson(json, GraniteMessage.class);
     }
 
@@ -26,8 +26,9 @@ package org.granitepowered.granite.util;
 import com.google.common.base.Throwables;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableMap;
+import javassist.ClassPool;
 import javassist.CtClass;
-import javassist.NotFoundException;
 import javassist.util.proxy.MethodHandler;
 import javassist.util.proxy.ProxyFactory;
 import org.granitepowered.granite.Granite;
@@ -39,7 +40,11 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.Objects;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ReflectionUtils {
 
@@ -67,6 +72,26 @@ public class ReflectionUtils {
             .put(void.class, CtClass.voidType)
             .build();
 
+    private static Map<String, Class<?>> primitivesByName = new ImmutableMap.Builder<String, Class<?>>()
+            .put("byte", byte.class)
+            .put("short", short.class)
+            .put("int", int.class)
+            .put("long", long.class)
+            .put("float", float.class)
+            .put("double", double.class)
+            .put("boolean", boolean.class)
+            .put("char", char.class)
+            .put("void", void.class)
+            .build();
+
+    // Name -> Class
+    private static ConcurrentMap<String, Class<?>> classesByName = new ConcurrentHashMap<>();
+    private static ConcurrentMap<String, CtClass> ctClassesByName = new ConcurrentHashMap<>();
+
+    // Names that did not resolve, until weaving defines new classes
+    private static Set<String> missingClassNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private static Set<String> missingCtClassNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
     /**
      * Will force access to a field. This even works with private static final fields!
      * <p/>
@@ -182,71 +207,130 @@ public class ReflectionUtils {
         return clazz;
     }
 
+    /**
+     * Resolves a class by name: a primitive, a class in java.lang, a fully qualified or obfuscated class, or a mapped class, in that order
+     * of preference. Any number of trailing "[]" make it an array type. Results are cached per name, misses until
+     * {@link #forgetMissingClasses()} is called.
+     *
+     * @param name The name of the class
+     * @return The class, or null if nothing matches
+     */
     public static Class<?> getClassByName(String name) {
-        boolean array = name.endsWith("[]");
-        name = name.replaceAll("\\[\\]", "");
-
-        Class<?> clazz = null;
-
-        for (Class<?> primitive : ctPrimitives.keySet()) {
-            if (Objects.equals(primitive.getName(), name)) {
-                clazz = primitive;
+        Class<?> clazz = classesByName.get(name);
+        if (clazz == null && !missingClassNames.contains(name)) {
+            clazz = resolveClass(name);
+            if (clazz != null) {
+                classesByName.putIfAbsent(name, clazz);
+            } else {
+                missingClassNames.add(name);
             }
         }
+        return clazz;
+    }
 
-        if (name.split("\\.").length == 1 && !name.toLowerCase().equals(name)) {
-            clazz = Mappings.getClass(name);
+    /**
+     * Resolves a {@link CtClass} by name, the same way as {@link #getClassByName(String)}.
+     *
+     * @param name The name of the class
+     * @return The class, or null if nothing matches
+     */
+    public static CtClass getCtClassByName(String name) {
+        CtClass clazz = ctClassesByName.get(name);
+        if (clazz == null && !missingCtClassNames.contains(name)) {
+            clazz = resolveCtClass(name);
+            if (clazz != null) {
+                ctClassesByName.putIfAbsent(name, clazz);
+            } else {
+                missingCtClassNames.add(name);
+            }
         }
+        return clazz;
+    }
 
-        try {
-            clazz = Class.forName(name);
-        } catch (ClassNotFoundException ignored) {
+    /**
+     * Forgets every name that did not resolve, so it is looked up again next time. Called whenever weaving defines new classes.
+     */
+    public static void forgetMissingClasses() {
+        missingClassNames.clear();
+        missingCtClassNames.clear();
+    }
+
+    private static Class<?> resolveClass(String name) {
+        int dimensions = arrayDimensions(name);
+        if (dimensions > 0) {
+            Class<?> component = getClassByName(name.substring(0, name.length() - dimensions * 2));
+            return component == null ? null : Array.newInstance(component, new int[dimensions]).getClass();
         }
 
-        try {
-            clazz = Class.forName("java.lang." + name);
-        } catch (ClassNotFoundException ignored) {
+        Class<?> primitive = primitivesByName.get(name);
+        if (primitive != null) {
+            return primitive;
         }
 
-        if (array) {
-            clazz = Array.newInstance(clazz, 0).getClass();
+        if (name.indexOf('.') < 0) {
+            Class<?> clazz = forName("java.lang." + name);
+            if (clazz == null) {
+                clazz = forName(name);
+            }
+            if (clazz == null && isMappedName(name) && Mappings.getCtClass(name) != null) {
+                clazz = Mappings.getClass(name);
+            }
+            return clazz;
         }
-        return clazz;
+        return forName(name);
     }
 
-    public static CtClass getCtClassByName(String name) {
-        boolean array = name.endsWith("[]");
-        name = name.replaceAll("\\[\\]", "");
+    private static CtClass resolveCtClass(String name) {
+        int dimensions = arrayDimensions(name);
+        if (dimensions > 0) {
+            int componentLength = name.length() - dimensions * 2;
+            CtClass component = getCtClassByName(name.substring(0, componentLength));
+            return component == null ? null : Granite.getInstance().getClassPool().getOrNull(component.getName() + name.substring(componentLength));
+        }
 
-        CtClass clazz = null;
+        Class<?> primitive = primitivesByName.get(name);
+        if (primitive != null) {
+            return ctPrimitives.get(primitive);
+        }
 
-        for (CtClass primitive : ctPrimitives.values()) {
-            if (Objects.equals(primitive.getName(), name)) {
-                clazz = primitive;
+        ClassPool pool = Granite.getInstance().getClassPool();
+        if (name.indexOf('.') < 0) {
+            CtClass clazz = pool.getOrNull("java.lang." + name);
+            if (clazz == null) {
+                clazz = pool.getOrNull(name);
             }
+            if (clazz == null && isMappedName(name)) {
+                clazz = Mappings.getCtClass(name);
+            }
+            return clazz;
         }
+        return pool.getOrNull(name);
+    }
 
-        if (name.split("\\.").length == 1 && !name.toLowerCase().equals(name)) {
-            clazz = Mappings.getCtClass(name);
+    private static int arrayDimensions(String name) {
+        int dimensions = 0;
+        for (int end = name.length(); name.startsWith("[]", end - 2); end -= 2) {
+            dimensions++;
         }
+        return dimensions;
+    }
 
-        try {
-            clazz = Granite.getInstance().getClassPool().get(name);
-        } catch (NotFoundException ignored) {
-        }
+    // Human class names are capitalised, obfuscated ones are all lower case
+    private static boolean isMappedName(String name) {
+        return !name.toLowerCase().equals(name);
+    }
 
-        try {
-            clazz = Granite.getInstance().getClassPool().get("java.lang." + name);
-        } catch (NotFoundException ignored) {
+    private static Class<?> forName(String name) {
+        // Asking the pool first doesn't throw, so a miss costs no ClassNotFoundException
+        if (ClassPool.getDefault().getOrNull(name) == null) {
+            return null;
         }
 
-        if (array) {
-            try {
-                clazz = Granite.getInstance().getClassPool().get(name + "[]");
-            } catch (NotFoundException ignored) {
-            }
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            return null;
         }
-        return clazz;
     }
 
     public static String getMethodSignature(Method m) {
@@ -267,29 +351,28 @@ public class ReflectionUtils {
         return ret;
     }
 
-    // Used from bytecode, don't remove
     public static Object cast(Object input, Class clazz) {
-        if (clazz.isArray()) {
-            try {
-                Class<?> actualType = Class.forName(clazz.getName().substring(2, clazz.getName().length() - 1));
-
-                Object[] src = (Object[]) input;
-
-                Object[] out = (Object[]) Array.newInstance(actualType, src.length);
-
-                if (!out.getClass().isAssignableFrom(input.getClass())) {
-                    for (int i = 0; i < src.length; i++) {
-                        out[i] = actualType.cast(src[i]);
-                    }
-
-                    return out;
-                } else {
-                    return input;
-                }
-            } catch (ClassNotFoundException e) {
-                Throwables.propagate(e);
-            }
+        if (clazz.isArray() && !clazz.getComponentType().isPrimitive()) {
+            return castArray((Object[]) input, clazz);
         }
         return input;
     }
+
+    /**
+     * Copies an array into a new array of the given type, unless it already is one.
+     *
+     * @param input     The array
+     * @param arrayType The array type to return, e.g. <code>WorldServer[].class</code>
+     * @return The input array or a copy of it
+     */
+    // Used from bytecode, don't remove
+    public static Object[] castArray(Object[] input, Class<?> arrayType) {
+        if (input == null || arrayType.isInstance(input)) {
+            return input;
+        }
+
+        Object[] out = (Object[]) Array.newInstance(arrayType.getComponentType(), input.length);
+        System.arraycopy(input, 0, out, 0, input.length);
+        return out;
+    }
 }
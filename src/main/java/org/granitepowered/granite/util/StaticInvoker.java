@@ -0,0 +1,58 @@
+/*
+ * License (MIT)
+ *
+ * Copyright (c) 2014-2015 Granite Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the
+ * Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.granitepowered.granite.util;
+
+import org.granitepowered.granite.bytecode.StaticMethod;
+import org.granitepowered.granite.mc.MCChatComponent;
+import org.granitepowered.granite.mc.MCItemStack;
+import org.granitepowered.granite.mc.MCNetHandlerPlayServer;
+import org.granitepowered.granite.mc.MCPacket;
+import org.granitepowered.granite.mc.MCWorld;
+
+public class StaticInvoker {
+
+    private static final StaticInvokerInterface instance = null;
+
+    public static StaticInvokerInterface get() {
+        return instance;
+    }
+
+    public interface StaticInvokerInterface {
+
+        @StaticMethod(className = "PacketThreadUtil", methodName = "func_180031_a")
+        void checkThreadAndEnqueue(MCPacket packet, MCNetHandlerPlayServer netHandler, MCWorld world);
+
+        @StaticMethod(className = "StatCollector", methodName = "translateToLocal")
+        String translateToLocal(String key);
+
+        @StaticMethod(className = "EnchantmentHelper", methodName = "getEnchantmentLevel")
+        int getEnchantmentLevel(int enchantmentId, MCItemStack itemStack);
+
+        @StaticMethod(className = "IChatComponent$Serializer", methodName = "jsonToComponent")
+        MCChatComponent jsonToComponent(String json);
+
+        @StaticMethod(className = "IChatComponent$Serializer", methodName = "componentToJson")
+        String componentToJson(MCChatComponent component);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * License (MIT)
+ *
+ * Copyright (c) 2014-2015 Granite Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the
+ * Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.granitepowered.granite.bytecode;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtMethod;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares what a proxied call allocates with the generated <code>$Info</code> class against the old path, which boxed every
+ * argument into an array and passed it to a plain {@link ProxyCallbackInfo}. The handler does what the <code>moveEntity</code>
+ * proxy does: reads the caller, then calls back into the original method.
+ * <p/>
+ * {@link #main(String[])} runs with the GC profiler; <code>gc.alloc.rate.norm</code> is the number of bytes allocated per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ProxyCallbackInfoBenchmark {
+
+    private Target target;
+    private double x, y, z;
+
+    private BytecodeClass.ProxyHandlerCallback invoker;
+    private InfoFactory infoFactory;
+
+    @Setup
+    public void setUp() throws Exception {
+        target = new Target();
+        x = 0.1;
+        y = -0.08;
+        z = 0.2;
+
+        ClassPool pool = new ClassPool(true);
+        pool.appendClassPath(new ClassClassPath(ProxyCallbackInfoBenchmark.class));
+
+        CtClass targetClass = pool.get(Target.class.getName());
+        CtMethod move = targetClass.getDeclaredMethod("move");
+        BytecodeClass weaver = new BytecodeClass(targetClass, pool);
+
+        CtClass invokerClass = weaver.createInvoker(move, "move");
+        CtClass infoClass = weaver.createInfo(move, "move");
+
+        // Stands in for the woven method, which calls the Info constructor directly
+        CtClass factoryClass = pool.makeClass(Target.class.getName() + "$move$InfoFactory");
+        factoryClass.addInterface(pool.get(InfoFactory.class.getName()));
+        factoryClass.addConstructor(CtNewConstructor.defaultConstructor(factoryClass));
+        factoryClass.addMethod(CtNewMethod.make(pool.get(ProxyCallbackInfo.class.getName()), "create",
+                                                new CtClass[]{pool.get(Object.class.getName()),
+                                                              pool.get(BytecodeClass.ProxyHandlerCallback.class.getName()),
+                                                              CtClass.doubleType, CtClass.doubleType, CtClass.doubleType},
+                                                new CtClass[]{}, "{ return new " + infoClass.getName() + "($1, $2, $3, $4, $5); }",
+                                                factoryClass));
+
+        ClassLoader loader = Target.class.getClassLoader();
+        invoker = (BytecodeClass.ProxyHandlerCallback) invokerClass.toClass(loader, Target.class.getProtectionDomain()).newInstance();
+        infoClass.toClass(loader, Target.class.getProtectionDomain());
+        infoFactory = (InfoFactory) factoryClass.toClass(loader, Target.class.getProtectionDomain()).newInstance();
+    }
+
+    @Benchmark
+    public double argumentArray() throws Throwable {
+        return handle(new ProxyCallbackInfo<>(target, new Object[]{x, y, z}, invoker));
+    }
+
+    @Benchmark
+    public double generatedInfo() throws Throwable {
+        return handle(infoFactory.create(target, invoker, x, y, z));
+    }
+
+    /**
+     * Not inlined, so the info escapes like it does when the woven method hands it to a handler.
+     */
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static double handle(ProxyCallbackInfo<Target> info) throws Throwable {
+        double oldX = info.getCaller().x;
+        info.callback();
+        return info.getCaller().x - oldX;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProxyCallbackInfoBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build())
+                .run();
+    }
+
+    public interface InfoFactory {
+
+        ProxyCallbackInfo<Target> create(Object caller, BytecodeClass.ProxyHandlerCallback invoker, double x, double y, double z);
+    }
+
+    public static class Target {
+
+        public double x, y, z;
+
+        public void move(double dx, double dy, double dz) {
+            x += dx;
+            y += dy;
+            z += dz;
+        }
+    }
+}
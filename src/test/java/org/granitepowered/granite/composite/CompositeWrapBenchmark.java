@@ -0,0 +1,127 @@
+/*
+ * License (MIT)
+ *
+ * Copyright (c) 2014-2015 Granite Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the
+ * Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.granitepowered.granite.composite;
+
+import org.granitepowered.granite.mc.MCInterface;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Composite#wrap(MCInterface, ClassValue)}, which MinecraftUtils.wrap calls and which reads the woven
+ * {@link CompositeHolder} field, with looking the composite type up and then the composite in the {@link Composite} cache, which
+ * is what MinecraftUtils.wrap did before. Run {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class CompositeWrapBenchmark {
+
+    /**
+     * How many distinct objects are wrapped in turn. A single object stays hot in the cache; thousands behave more like a world's
+     * entities and blocks.
+     */
+    @Param({"1", "4096"})
+    public int objects;
+
+    private static final ClassValue<Class<? extends Composite>> compositeTypes = new ClassValue<Class<? extends Composite>>() {
+        @Override
+        protected Class<? extends Composite> computeValue(Class<?> type) {
+            return type == Parent.class ? Wrapper.class : null;
+        }
+    };
+
+    private Parent[] parents;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        parents = new Parent[objects];
+        for (int i = 0; i < objects; i++) {
+            parents[i] = new Parent();
+
+            // Fills both the cache and the field, so both paths only measure the lookup
+            Composite.wrap(parents[i], compositeTypes);
+        }
+    }
+
+    @Benchmark
+    public Composite cache() {
+        Parent parent = nextParent();
+        return Composite.new_(parent, compositeTypes.get(parent.getClass()));
+    }
+
+    @Benchmark
+    public Composite holder() {
+        return Composite.wrap(nextParent(), compositeTypes);
+    }
+
+    private Parent nextParent() {
+        Parent parent = parents[next];
+        next = next + 1 == parents.length ? 0 : next + 1;
+        return parent;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CompositeWrapBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    public static class Parent implements MCInterface, CompositeHolder {
+
+        private Composite composite;
+
+        @Override
+        public Composite granite$getComposite() {
+            return composite;
+        }
+
+        @Override
+        public void granite$setComposite(Composite composite) {
+            this.composite = composite;
+        }
+    }
+
+    public static class Wrapper extends Composite<Parent> {
+
+        public Wrapper(Parent obj) {
+            super(obj);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * License (MIT)
+ *
+ * Copyright (c) 2014-2015 Granite Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the
+ * Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.granitepowered.granite.impl.service.event;
+
+import javassist.ClassPool;
+import org.granitepowered.granite.impl.event.state.GraniteLoadCompleteEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares calling a handler through a generated {@link EventExecutor} with a {@link MethodHandleEventExecutor}, plain reflection and a
+ * direct call. Run {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class EventExecutorBenchmark {
+
+    private Listener listener;
+    private GraniteLoadCompleteEvent event;
+    private Method method;
+
+    private EventExecutor generated;
+    private EventExecutor methodHandle;
+
+    @Setup
+    public void setUp() throws Exception {
+        listener = new Listener();
+        event = new GraniteLoadCompleteEvent();
+        method = Listener.class.getMethod("onEvent", GraniteLoadCompleteEvent.class);
+
+        generated = EventExecutorFactory.generate(method, ClassPool.getDefault());
+        methodHandle = new MethodHandleEventExecutor(method);
+    }
+
+    @Benchmark
+    public int direct() {
+        listener.onEvent(event);
+        return listener.calls;
+    }
+
+    @Benchmark
+    public int generated() throws Throwable {
+        generated.execute(listener, event);
+        return listener.calls;
+    }
+
+    @Benchmark
+    public int methodHandle() throws Throwable {
+        methodHandle.execute(listener, event);
+        return listener.calls;
+    }
+
+    @Benchmark
+    public int reflection() throws Exception {
+        method.invoke(listener, event);
+        return listener.calls;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventExecutorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    public static class Listener {
+
+        int calls;
+
+        public void onEvent(GraniteLoadCompleteEvent event) {
+            calls++;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * License (MIT)
+ *
+ * Copyright (c) 2014-2015 Granite Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the
+ * Software without restriction, including without limitation the rights to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of the Software,
+ * and to permit persons to whom the Software is furnished to do so, subject to the
+ * following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package org.granitepowered.granite.mappings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class MappingsConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 50;
+
+    private static final String PREFIX = MappingsConcurrencyTest.class.getName() + "$";
+
+    // Derived lists tick()V although Base declares it, the way the real mappings list inherited methods under subclasses
+    private static final String JSON = "{\"classes\": {"
+            + "\"Base\": {\"name\": \"" + PREFIX + "Base\", \"methods\": {\"count()I\": \"getCount\"}, \"fields\": {\"count\": \"count\"}},"
+            + "\"Derived\": {\"name\": \"" + PREFIX + "Derived\", \"methods\": {\"tick()V\": \"tick\","
+            + " \"describe(Ljava/lang/String;)Ljava/lang/String;\": \"describe\"}, \"fields\": {\"label\": \"label\"}},"
+            + "\"Other\": {\"name\": \"" + PREFIX + "Other\", \"methods\": {\"value()J\": \"getValue\"}, \"fields\": {\"value\": \"value\"}}"
+            + "}}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File mappingsFile;
+    private ClassPool pool;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        mappingsFile = folder.newFile("mappings.json");
+        Files.write(JSON, mappingsFile, Charsets.UTF_8);
+
+        pool = new ClassPool(true);
+        pool.appendClassPath(new ClassClassPath(MappingsConcurrencyTest.class));
+        Mappings.load(mappingsFile, pool);
+
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void inheritedMethodIsFiledUnderItsDeclaringClass() {
+        CtMethod tick = Mappings.getCtMethod("Base", "tick");
+        assertNotNull(tick);
+        assertSame(tick, Mappings.getCtMethod("Derived", "tick"));
+    }
+
+    @Test(timeout = 120000)
+    public void concurrentLookupsAgree() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Start every round from empty caches, so the threads race on resolving classes and building member tables
+            Mappings.load(mappingsFile, pool);
+
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<Object>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final boolean reverse = thread % 2 == 1;
+                futures.add(executor.submit(new Callable<List<Object>>() {
+                    @Override
+                    public List<Object> call() throws Exception {
+                        start.await();
+                        return reverse ? lookup("Other", "Derived", "Base") : lookup("Base", "Derived", "Other");
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Object> expected = futures.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<List<Object>> future : futures) {
+                List<Object> actual = future.get(30, TimeUnit.SECONDS);
+                assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertNotNull(actual.get(i));
+                    assertEquals(expected.get(i), actual.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks every mapped member up and returns the results in a fixed order, whichever order the classes were asked for in.
+     */
+    private static List<Object> lookup(String... order) throws Throwable {
+        for (String humanClassName : order) {
+            Mappings.getCtClass(humanClassName);
+        }
+
+        List<Object> results = new ArrayList<>();
+        for (String humanClassName : new String[]{"Base", "Derived", "Other"}) {
+            CtClass ctClass = Mappings.getCtClass(humanClassName);
+            Class<?> clazz = Mappings.getClass(humanClassName);
+            results.add(ctClass);
+            results.add(clazz);
+            results.add(Mappings.getClassName(ctClass));
+            results.add(Mappings.getClassName(clazz));
+        }
+
+        CtField count = Mappings.getCtField("Derived", "count");
+        CtField label = Mappings.getCtField("Derived", "label");
+        CtField value = Mappings.getCtField("Other", "value");
+        Field countField = Mappings.getField("Derived", "count");
+        Field labelField = Mappings.getField("Derived", "label");
+        Field valueField = Mappings.getField("Other", "value");
+        CtMethod tick = Mappings.getCtMethod("Derived", "tick");
+        CtMethod describe = Mappings.getCtMethod("Derived", "describe");
+        CtMethod getValue = Mappings.getCtMethod("Other", "getValue");
+        results.add(count);
+        results.add(label);
+        results.add(value);
+        results.add(countField);
+        results.add(labelField);
+        results.add(valueField);
+        results.add(tick);
+        results.add(describe);
+        results.add(getValue);
+
+        // Handles are compared by what they return, since two threads racing on one can each build their own
+        Derived derived = new Derived();
+        MethodHandle tickHandle = Mappings.getMethod("Derived", "tick");
+        MethodHandle describeHandle = Mappings.getMethod("Derived", "describe");
+        MethodHandle getCountHandle = Mappings.getMethod("Derived", "getCount");
+        MethodHandle getValueHandle = Mappings.getMethod("Other", "getValue");
+        tickHandle.invoke(derived);
+        results.add(getCountHandle.invoke(derived));
+        results.add(describeHandle.invoke(derived, "a"));
+        results.add(getValueHandle.invoke(new Other()));
+        return results;
+    }
+
+    public static class Base {
+
+        protected int count;
+
+        public int count() {
+            return count;
+        }
+
+        public void tick() {
+            count++;
+        }
+    }
+
+    public static class Derived extends Base {
+
+        private String label = "derived";
+
+        public String describe(String suffix) {
+            return label + suffix;
+        }
+    }
+
+    public static class Other {
+
+        private long value = 42;
+
+        public long value() {
+            return value;
+        }
+    }
+}